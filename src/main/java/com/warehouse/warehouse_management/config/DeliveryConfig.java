@@ -0,0 +1,24 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.delivery")
+@Data
+public class DeliveryConfig {
+    // upper bound for available-day lookups; also how far ahead the truck calendar preloads
+    private int maxLookaheadDays = 180;
+    // how often scheduling re-selects after losing trucks to a concurrent booking
+    private int claimAttempts = 3;
+    // deliveries handled per transaction by the nightly fulfillment job
+    private int fulfillmentBatchSize = 500;
+    // local time on the scheduled date at which a delivery counts as done and its trucks return
+    private LocalTime completionTime = LocalTime.of(18, 0);
+    // zone the warehouse keeps its dates in: completionTime is read in it, and the nightly job runs on its clock
+    private ZoneId zone = ZoneId.of("Europe/Tirane");
+}
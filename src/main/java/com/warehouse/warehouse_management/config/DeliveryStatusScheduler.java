@@ -1,44 +1,107 @@
 package com.warehouse.warehouse_management.config;
 
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.JobWatermark;
 import com.warehouse.warehouse_management.entity.OrderStatus;
 import com.warehouse.warehouse_management.repository.DeliveryRepository;
-import com.warehouse.warehouse_management.repository.OrderRepository;
-import com.warehouse.warehouse_management.repository.TruckRepository;
-import jakarta.transaction.Transactional;
+import com.warehouse.warehouse_management.repository.JobWatermarkRepository;
+import com.warehouse.warehouse_management.service.DeliveryFulfillment;
+import com.warehouse.warehouse_management.service.JobLeaseManager;
+import com.warehouse.warehouse_management.service.TruckCalendar;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
+/**
+ * Nightly sweep that marks UNDER_DELIVERY orders whose delivery date has arrived as FULFILLED
+ * and puts their trucks back into service. Most deliveries are already handled during the day
+ * by {@code DeliveryCompletionQueue}; this catches whatever it missed.
+ * <p>
+ * Works in keyset-paged batches of (scheduledDate, id), one transaction per batch, with
+ * set-based updates. After each batch the last key is stored in {@code job_watermarks}, so a
+ * run that dies half-way resumes after the last committed batch when restarted the same day.
+ * Runs under a {@link JobLeaseManager} lease so only one node sweeps per night.
+ */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class DeliveryStatusScheduler {
 
+    static final String JOB = "mark-fulfilled";
+    private static final LocalDate START = LocalDate.of(1970, 1, 1);
+
     private final DeliveryRepository deliveries;
-    private final OrderRepository orders;
-    private final TruckRepository truck;
+    private final DeliveryFulfillment fulfillment;
+    private final JobWatermarkRepository watermarks;
+    private final TruckCalendar calendar;
+    private final DeliveryConfig config;
+    private final PlatformTransactionManager transactionManager;
+    private final JobLeaseManager leases;
+
+    private record Batch(int rows, int fulfilled, int reactivated) {}
 
-    @Scheduled(cron = "0 28 23 * * *", zone = "Europe/Tirane")
-    @Transactional
+    @Scheduled(cron = "0 28 23 * * *", zone = "${spring.delivery.zone}")
     public void markFulfilled() {
+        // every node fires the cron; only the lease holder does the work
+        leases.runExclusively(JOB, this::sweep);
+    }
+
+    private void sweep() {
         LocalDate today = LocalDate.now();
-        deliveries.findByScheduledDateLessThanEqual(today).forEach(d -> {
-            var o = d.getOrder();
-            if (o != null && o.getStatus() == OrderStatus.UNDER_DELIVERY) {
-                o.setStatus(OrderStatus.FULFILLED);
-                orders.save(o);
-                if (d.getTrucks() != null) {
-                    d.getTrucks().forEach(t -> {
-                        if (!t.isActive()) {
-                            t.setActive(true);
-                            truck.save(t);
-                        }
-                    });
-                }
-            }
-
-        });
+        long started = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        JobWatermark mark = watermarks.findById(JOB)
+                .filter(w -> today.equals(w.getRunDate()))
+                .orElseGet(() -> fresh(today));
+        if (mark.getLastId() > 0)
+            log.info("Fulfillment job resuming after ({}, {})", mark.getLastDate(), mark.getLastId());
+
+        int rows = 0, batches = 0, fulfilled = 0, reactivated = 0;
+        while (true) {
+            Batch b = tx.execute(status -> runBatch(mark, today));
+            if (b == null || b.rows() == 0) break;
+            batches++;
+            rows += b.rows();
+            fulfilled += b.fulfilled();
+            reactivated += b.reactivated();
+            if (b.rows() < config.getFulfillmentBatchSize()) break;
+        }
+        calendar.evictBefore(today);
+
+        log.info("Fulfillment job done: {} deliveries in {} batches, {} orders fulfilled, {} trucks reactivated, {} ms",
+                rows, batches, fulfilled, reactivated, (System.nanoTime() - started) / 1_000_000);
     }
-}
 
+    private Batch runBatch(JobWatermark mark, LocalDate today) {
+        List<DueDelivery> page = deliveries.findDueAfter(OrderStatus.UNDER_DELIVERY, today,
+                mark.getLastDate(), mark.getLastId(), Limit.of(config.getFulfillmentBatchSize()));
+        if (page.isEmpty()) return new Batch(0, 0, 0);
+
+        DeliveryFulfillment.Result result = fulfillment.fulfil(page);
+
+        DueDelivery last = page.get(page.size() - 1);
+        mark.setLastDate(last.scheduledDate());
+        mark.setLastId(last.deliveryId());
+        mark.setUpdatedAt(LocalDateTime.now());
+        watermarks.save(mark);
+        return new Batch(page.size(), result.fulfilled(), result.reactivated());
+    }
+
+    private static JobWatermark fresh(LocalDate today) {
+        JobWatermark w = new JobWatermark();
+        w.setJobName(JOB);
+        w.setRunDate(today);
+        w.setLastDate(START);
+        w.setLastId(0L);
+        return w;
+    }
+}
@@ -0,0 +1,16 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.inventory")
+@Data
+public class InventoryConfig {
+    // pending movements folded per compaction transaction
+    private int compactionChunkSize = 5000;
+    private long compactionIntervalMillis = 10_000;
+    // how often pending totals are re-read so other nodes' movements show up here
+    private long tailReloadIntervalMillis = 15_000;
+}
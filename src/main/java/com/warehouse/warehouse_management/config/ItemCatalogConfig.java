@@ -0,0 +1,14 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.item-catalog")
+@Data
+public class ItemCatalogConfig {
+    private int maxEntries = 10_000;
+    // upper bound on staleness for writes made by other nodes; local writes evict right after commit
+    private long ttlSeconds = 60;
+}
@@ -0,0 +1,15 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.item-import")
+@Data
+public class ItemImportConfig {
+    // rows per JDBC batch and per transaction; the driver rewrites each batch into multi-row inserts
+    private int batchSize = 1000;
+    // error rows echoed back in the result; further ones are only counted
+    private int maxReportedErrors = 1000;
+}
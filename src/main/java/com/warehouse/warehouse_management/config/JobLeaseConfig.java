@@ -0,0 +1,18 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.job-lease")
+@Data
+public class JobLeaseConfig {
+    // a holder that stops heart-beating loses the lease after this long
+    private int leaseSeconds = 30;
+    private int heartbeatSeconds = 10;
+    // a finished run keeps the lease this long so nodes with skewed clocks don't rerun it
+    private int minHoldSeconds = 60;
+    // defaults to host name plus a random suffix
+    private String owner;
+}
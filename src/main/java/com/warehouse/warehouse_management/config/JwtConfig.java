@@ -1,7 +1,10 @@
 package com.warehouse.warehouse_management.config;
 
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -14,9 +17,27 @@ public class JwtConfig {
     private String secret;
     private int accessTokenExpiration;
     private int refreshTokenExpiration;
+    // recently verified tokens kept by JwtVerifier; entries leave when their token expires
+    private int verifiedTokenCacheSize = 10_000;
+    // Bloom filter in front of the revoked token ids; rounded up to a power of two
+    private int revocationFilterBits = 1 << 20;
+    private int revocationFilterHashes = 5;
+    // how often the revoked token ids are re-read so revocations on other nodes take effect here
+    private long revocationReloadIntervalMillis = 15_000;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile SecretKey secretKey;
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+        this.secretKey = null;
+    }
+
+    // derived once; Keys.hmacShaKeyFor copies and checks the bytes on every call
     public SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey key = secretKey;
+        if (key == null) secretKey = key = Keys.hmacShaKeyFor(secret.getBytes());
+        return key;
     }
 }
-
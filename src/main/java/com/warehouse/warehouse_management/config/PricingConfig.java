@@ -0,0 +1,19 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.pricing")
+@Data
+public class PricingConfig {
+    // multipliers are in basis points: 10000 = unchanged, 9000 = 10% off, 10500 = 5% on top
+    private long bulkMinQty = 100;
+    private int bulkBasisPoints = 9_000;
+    private long lowStockBelow = 20;
+    private int lowStockBasisPoints = 10_200;
+    private long largeOrderMinCents = 1_000_000;
+    private int largeOrderBasisPoints = 9_500;
+    private int weekendBasisPoints = 10_500;
+}
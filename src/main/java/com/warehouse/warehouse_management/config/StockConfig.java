@@ -0,0 +1,13 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.stock")
+@Data
+public class StockConfig {
+    // how often available-to-promise is rebuilt from the items table
+    private long atpReloadIntervalMillis = 60_000;
+}
@@ -0,0 +1,14 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.truck-selection")
+@Data
+public class TruckSelectionConfig {
+    // hard ceilings per selection call; scheduling holds truck row locks while searching
+    private long timeBudgetMillis = 50;
+    private long nodeBudget = 2_000_000;
+}
@@ -0,0 +1,13 @@
+package com.warehouse.warehouse_management.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "spring.urgent-queue")
+@Data
+public class UrgentQueueConfig {
+    // how often the in-memory queue is checked against the database and rebuilt if it drifted
+    private long verifyIntervalMillis = 300_000;
+}
@@ -7,34 +7,36 @@ import com.warehouse.warehouse_management.dto.UpdatePasswordRequest;
 import com.warehouse.warehouse_management.dto.UserDto;
 import com.warehouse.warehouse_management.entity.User;
 import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
-import com.warehouse.warehouse_management.mapper.UserMapper;
 import com.warehouse.warehouse_management.repository.UserRepository;
+import com.warehouse.warehouse_management.service.AuthenticatedUser;
 import com.warehouse.warehouse_management.service.JwtService;
+import com.warehouse.warehouse_management.service.RefreshTokens;
+import com.warehouse.warehouse_management.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @AllArgsConstructor
+@Slf4j
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokens refreshTokens;
     private final JwtConfig jwtConfig;
-    private final UserRepository userRepository;
-    private final UserMapper userMapper;
     private final UserRepository users;
     private final PasswordEncoder encoder;
 
@@ -43,44 +45,68 @@ public class AuthController {
     public ResponseEntity<JwtResponse> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletResponse response) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+        var authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
 
-        var user = userRepository.findByEmail(request.getEmail()).orElseThrow();
-        var accessToken = jwtService.generateAccessToken(user);
-        var refreshToken = jwtService.generateRefreshToken(user);
-        var cookie = new Cookie("refreshToken", refreshToken.toString());
-        cookie.setHttpOnly(true);
-        cookie.setPath("/auth/refresh");
-        cookie.setMaxAge(jwtConfig.getRefreshTokenExpiration());
-        cookie.setSecure(false);
-        response.addCookie(cookie);
+        var account = (UserService.Account) authentication.getPrincipal();
+        var issued = refreshTokens.issue(account.getProfile());
+        response.addCookie(refreshCookie(issued.refreshToken().toString(), jwtConfig.getRefreshTokenExpiration()));
 
-        return ResponseEntity.ok(new JwtResponse(accessToken.toString()));
+        return ResponseEntity.ok(new JwtResponse(issued.accessToken().toString()));
     }
 
     @PostMapping("/refresh")
     @Operation(summary = "Refresh Token")
-    public ResponseEntity<JwtResponse> refresh(@CookieValue(value = "refreshToken") String refreshToken) {
+    public ResponseEntity<JwtResponse> refresh(@CookieValue(value = "refreshToken") String refreshToken,
+                                               HttpServletResponse response) {
         if (refreshToken == null) {
-            System.out.println("No refreshToken cookie on request");
+            log.debug("No refreshToken cookie on request");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         var jwt = jwtService.parseToken(refreshToken);
         if (jwt==null || jwt.isExpired()) {
-            System.out.println("Invalid/expired refresh token");
+            log.debug("Invalid/expired refresh token");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        var user = userRepository.findById(jwt.getUserId()).orElseThrow();
-        var accessToken = jwtService.generateAccessToken(user);
-        return ResponseEntity.ok(new JwtResponse(accessToken.toString()));
+        // every refresh spends the cookie's token; replaying a spent one revokes the whole login
+        var issued = refreshTokens.rotate(jwt);
+        if (issued == null) {
+            log.debug("Revoked or already used refresh token"); // RefreshTokens warns when it was a replay
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        response.addCookie(refreshCookie(issued.refreshToken().toString(), jwtConfig.getRefreshTokenExpiration()));
+        return ResponseEntity.ok(new JwtResponse(issued.accessToken().toString()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "LogOut")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                       HttpServletResponse response) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            refreshTokens.logout(jwtService.parseToken(authHeader.substring("Bearer ".length())));
+        }
+        response.addCookie(refreshCookie("", 0));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Cookie refreshCookie(String value, int maxAge) {
+        var cookie = new Cookie("refreshToken", value);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/auth/refresh");
+        cookie.setMaxAge(maxAge);
+        cookie.setSecure(false);
+        return cookie;
     }
 
     @PatchMapping("/password")
     @Operation(summary = "Change Password")
     @Transactional
-    public ResponseEntity<Void> changeMyPassword(@AuthenticationPrincipal Long userId,
+    public ResponseEntity<Void> changeMyPassword(@AuthenticationPrincipal AuthenticatedUser principal,
                                                  @Valid @RequestBody UpdatePasswordRequest req) {
-        User user = users.findById(userId)
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        User user = users.findById(principal.id())
                 .orElseThrow(() -> new BusinessRuleExceptions("User not found"));
 
         if (!encoder.matches(req.currentPassword(), user.getPassword())) {
@@ -95,20 +121,13 @@ public class AuthController {
         return ResponseEntity.noContent().build();
     }
 
+    // served from the token's claims; no database round trip
     @GetMapping("/me")
-    public ResponseEntity<UserDto> me() {
-        var authentication = SecurityContextHolder.getContext().getAuthentication();
-        var userId = (Long) authentication.getPrincipal();
-
-
-        var user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<UserDto> me(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-
-        var userDto = userMapper.toDto(user);
-
-        return ResponseEntity.ok(userDto);
+        return ResponseEntity.ok(principal.toDto());
     }
 
 
@@ -1,12 +1,17 @@
 package com.warehouse.warehouse_management.controller;
 
 import com.warehouse.warehouse_management.dto.AddItemRequest;
+import com.warehouse.warehouse_management.dto.BatchLineItemsRequest;
+import com.warehouse.warehouse_management.dto.CursorPage;
+import com.warehouse.warehouse_management.dto.ItemAvailability;
 import com.warehouse.warehouse_management.dto.OrderResponse;
 import com.warehouse.warehouse_management.dto.UpdateQuantityRequest;
 import com.warehouse.warehouse_management.entity.Order;
 import com.warehouse.warehouse_management.entity.OrderStatus;
 import com.warehouse.warehouse_management.entity.Priority;
 import com.warehouse.warehouse_management.mapper.OrderMapper;
+import com.warehouse.warehouse_management.service.AuthenticatedUser;
+import com.warehouse.warehouse_management.service.AvailableToPromise;
 import com.warehouse.warehouse_management.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -23,64 +28,81 @@ public class ClientController {
 
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final AvailableToPromise atp;
 
     @PostMapping("/orders")
     @Operation(summary = "Create new order")
-    public OrderResponse createOrder(@AuthenticationPrincipal Long clientId,
+    public OrderResponse createOrder(@AuthenticationPrincipal AuthenticatedUser client,
                                      @RequestParam(defaultValue = "NORMAL") Priority priority) {
-        Order order = orderService.createOrder(clientId,priority);
+        Order order = orderService.createOrder(client.id(),priority);
         return orderMapper.toDto(order);
     }
 
     @PostMapping("/orders/{orderId}/items")
     @Operation(summary = "Add item to order")
-    public OrderResponse addItem(@AuthenticationPrincipal Long clientId,
+    public OrderResponse addItem(@AuthenticationPrincipal AuthenticatedUser client,
                                  @PathVariable Long orderId,
                                  @Valid @RequestBody AddItemRequest req) {
-        Order order = orderService.addItemToOrder(clientId, orderId, req.itemId(), req.quantity());
+        Order order = orderService.addItemToOrder(client.id(), orderId, req.itemId(), req.quantity());
+        return orderMapper.toDto(order);
+    }
+
+    @PostMapping("/orders/{orderId}/items:batch")
+    @Operation(summary = "Add, update and remove several items in one request")
+    public OrderResponse applyItems(@AuthenticationPrincipal AuthenticatedUser client,
+                                    @PathVariable Long orderId,
+                                    @Valid @RequestBody BatchLineItemsRequest req) {
+        Order order = orderService.applyLineItems(client.id(), orderId, req.operations());
         return orderMapper.toDto(order);
     }
 
     @PatchMapping("/orders/{orderId}/items/{itemId}")
     @Operation(summary = "Update item quantity")
-    public OrderResponse updateItemQty(@AuthenticationPrincipal Long clientId,
+    public OrderResponse updateItemQty(@AuthenticationPrincipal AuthenticatedUser client,
                                        @PathVariable Long orderId,
                                        @PathVariable Long itemId,
                                        @Valid @RequestBody UpdateQuantityRequest req) {
-        Order order = orderService.updateItemQuantity(clientId, orderId, itemId, req.quantity());
+        Order order = orderService.updateItemQuantity(client.id(), orderId, itemId, req.quantity());
         return orderMapper.toDto(order);
     }
 
     @DeleteMapping("/orders/{orderId}/items/{itemId}")
     @Operation(summary = "Delete item from order")
-    public OrderResponse removeItem(@AuthenticationPrincipal Long clientId,
+    public OrderResponse removeItem(@AuthenticationPrincipal AuthenticatedUser client,
                                     @PathVariable Long orderId,
                                     @PathVariable Long itemId) {
-        Order order = orderService.removeItemFromOrder(clientId, orderId, itemId);
+        Order order = orderService.removeItemFromOrder(client.id(), orderId, itemId);
         return orderMapper.toDto(order);
     }
 
     @PostMapping("/orders/{orderId}/submit")
     @Operation(summary = "Submit order")
-    public OrderResponse submitOrder(@AuthenticationPrincipal Long clientId,
+    public OrderResponse submitOrder(@AuthenticationPrincipal AuthenticatedUser client,
                                      @PathVariable Long orderId) {
-        Order order = orderService.submitOrder(clientId, orderId);
+        Order order = orderService.submitOrder(client.id(), orderId);
         return orderMapper.toDto(order);
     }
 
     @PostMapping("/orders/{orderId}/cancel")
     @Operation(summary = "Cancel order")
-    public OrderResponse cancelOrder(@AuthenticationPrincipal Long clientId,
+    public OrderResponse cancelOrder(@AuthenticationPrincipal AuthenticatedUser client,
                                      @PathVariable Long orderId) {
-        Order order = orderService.cancelOrder(clientId, orderId);
+        Order order = orderService.cancelOrder(client.id(), orderId);
         return orderMapper.toDto(order);
     }
 
+    @GetMapping("/items/availability")
+    @Operation(summary = "Available-to-promise stock for the given items, or for all items when none are given")
+    public List<ItemAvailability> availability(@RequestParam(required = false) List<Long> ids) {
+        return atp.availability(ids == null ? List.of() : ids);
+    }
+
     @GetMapping("/orders")
-    @Operation(summary = "List all orders")
-    public List<OrderResponse> listMyOrders(@AuthenticationPrincipal Long clientId,
-                                            @RequestParam(required = false) OrderStatus status) {
-        return orderService.listMyOrders(clientId, status).stream().map(orderMapper::toDto)
-                .toList();
+    @Operation(summary = "List my orders, newest first; pass the returned next cursor to get the following page")
+    public CursorPage<OrderResponse> listMyOrders(@AuthenticationPrincipal AuthenticatedUser client,
+                                                  @RequestParam(required = false) OrderStatus status,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return orderService.listMyOrders(client.id(), status, cursor, limit).map(orderMapper::toDto);
     }
 }
\ No newline at end of file
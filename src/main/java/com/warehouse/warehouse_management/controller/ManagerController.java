@@ -2,14 +2,26 @@ package com.warehouse.warehouse_management.controller;
 
 import com.warehouse.warehouse_management.dto.*;
 import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.service.ItemImportService;
 import com.warehouse.warehouse_management.service.ManagerService;
+import com.warehouse.warehouse_management.service.OrderExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,12 +31,32 @@ import java.util.List;
 public class ManagerController {
 
     private final ManagerService manager;
+    private final OrderExportService orderExport;
+    private final ItemImportService itemImport;
 
     // ---- Orders ----
     @GetMapping("/orders")
-    @Operation(summary = "List of Orders")
-    public List<OrderSummaryResponse> listAllOrders(@RequestParam(required = false) OrderStatus status) {
-        return manager.listAllOrders(status);
+    @Operation(summary = "List of Orders, newest first; pass the returned next cursor to get the following page")
+    public CursorPage<OrderSummaryResponse> listAllOrders(@RequestParam(required = false) OrderStatus status,
+                                                          @RequestParam(required = false) Priority priority,
+                                                          @RequestParam(required = false) LocalDate from,
+                                                          @RequestParam(required = false) LocalDate to,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return manager.listAllOrders(new OrderSummaryFilter(status, priority, from, to), cursor, limit);
+    }
+
+    @GetMapping("/orders/export")
+    @Operation(summary = "Export orders with their lines as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(defaultValue = "NDJSON") DataFormat format,
+                                                              @RequestParam(required = false) OrderStatus status,
+                                                              @RequestParam(required = false) LocalDate from,
+                                                              @RequestParam(required = false) LocalDate to) {
+        StreamingResponseBody body = out -> orderExport.export(format, status, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format.extension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/orders/{orderNumber}")
@@ -54,12 +86,31 @@ public class ManagerController {
         return manager.createItem(req);
     }
 
+    @PostMapping("/items/import")
+    @Operation(summary = "Create or update items in bulk from a CSV or NDJSON body, matched by item name")
+    public ItemImportResult importItems(@RequestParam(defaultValue = "CSV") DataFormat format, InputStream body) {
+        return itemImport.importItems(format, body);
+    }
+
     @PutMapping("/items/{id}")
     @Operation(summary = "Update item")
     public ItemDto updateItem(@PathVariable Long id, @RequestBody ItemDto dto) {
         return manager.updateItem(id, dto);
     }
 
+    @PostMapping("/items/{id}/receipts")
+    @Operation(summary = "Receive stock for an item")
+    public ItemDto receiveStock(@PathVariable Long id, @Valid @RequestBody UpdateQuantityRequest req) {
+        return manager.receiveStock(id, req.quantity());
+    }
+
+    @GetMapping("/items/{id}/movements")
+    @Operation(summary = "Stock movements of an item, newest first")
+    public List<InventoryMovementLine> itemMovements(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "50") int limit) {
+        return manager.itemMovements(id, limit);
+    }
+
     @DeleteMapping("/items/{id}")
     @Operation(summary = "Delete item")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -68,9 +119,20 @@ public class ManagerController {
     }
 
     @GetMapping("/items")
-    @Operation(summary = "List of item")
-    public List<ItemDto> listItems() {
-        return manager.listItems();
+    @Operation(summary = "List of item; honours If-None-Match with the returned ETag")
+    public ResponseEntity<List<ItemDto>> listItems(WebRequest request) {
+        List<ItemDto> list = manager.listItems();
+        // built from the cached catalog, so the tag costs a pass over memory rather than a query. A digest
+        // over every field (as ShallowEtagHeaderFilter does), so listings that differ anywhere get different tags
+        String etag = "\"" + DigestUtils.md5DigestAsHex(list.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request.checkNotModified(etag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        return ResponseEntity.ok().eTag(etag).body(list);
+    }
+
+    @GetMapping("/items/cache-stats")
+    @Operation(summary = "Item catalog cache hits, misses and evictions")
+    public ItemCatalogStats itemCatalogStats() {
+        return manager.itemCatalogStats();
     }
 
     // ---- Trucks ----
@@ -106,6 +168,12 @@ public class ManagerController {
         return manager.scheduleDelivery(orderNumber, req.date());
     }
 
+    @PostMapping("/schedule/batch")
+    @Operation(summary = "Schedule many approved orders in one run")
+    public BatchScheduleResponse scheduleBatch(@Valid @RequestBody BatchScheduleRequest req) {
+        return manager.scheduleBatch(req.orderNumbers(), req.from(), req.to());
+    }
+
     @GetMapping("/orders/{orderNumber}/available-days")
     @Operation(summary = "Find Available days for scheduling order")
     public AvailableDaysResponse availableDaysForDelivery(@PathVariable Long orderNumber,
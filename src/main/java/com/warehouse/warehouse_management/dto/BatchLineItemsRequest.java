@@ -0,0 +1,11 @@
+package com.warehouse.warehouse_management.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchLineItemsRequest(
+        @NotEmpty @Size(max = 1000) List<@Valid LineItemOperation> operations
+) {}
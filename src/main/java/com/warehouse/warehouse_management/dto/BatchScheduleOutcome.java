@@ -0,0 +1,19 @@
+package com.warehouse.warehouse_management.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record BatchScheduleOutcome(Long orderNumber,
+                                   boolean scheduled,
+                                   LocalDate date,
+                                   List<String> truckPlates,
+                                   String message) {
+
+    public static BatchScheduleOutcome scheduled(Long orderNumber, LocalDate date, List<String> truckPlates) {
+        return new BatchScheduleOutcome(orderNumber, true, date, truckPlates, null);
+    }
+
+    public static BatchScheduleOutcome failed(Long orderNumber, String message) {
+        return new BatchScheduleOutcome(orderNumber, false, null, List.of(), message);
+    }
+}
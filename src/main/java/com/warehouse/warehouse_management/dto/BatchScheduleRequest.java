@@ -0,0 +1,13 @@
+package com.warehouse.warehouse_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public record BatchScheduleRequest(
+        @NotEmpty Set<Long> orderNumbers,
+        @NotNull LocalDate from,
+        @NotNull LocalDate to
+) {}
@@ -0,0 +1,11 @@
+package com.warehouse.warehouse_management.dto;
+
+import java.util.List;
+
+public record BatchScheduleResponse(int scheduled, int failed, List<BatchScheduleOutcome> outcomes) {
+
+    public static BatchScheduleResponse of(List<BatchScheduleOutcome> outcomes) {
+        int ok = (int) outcomes.stream().filter(BatchScheduleOutcome::scheduled).count();
+        return new BatchScheduleResponse(ok, outcomes.size() - ok, outcomes);
+    }
+}
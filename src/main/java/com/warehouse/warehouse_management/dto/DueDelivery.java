@@ -0,0 +1,6 @@
+package com.warehouse.warehouse_management.dto;
+
+import java.time.LocalDate;
+
+public record DueDelivery(Long deliveryId, Long orderNumber, LocalDate scheduledDate) {
+}
@@ -0,0 +1,16 @@
+package com.warehouse.warehouse_management.dto;
+
+import com.warehouse.warehouse_management.entity.MovementKind;
+
+import java.time.LocalDateTime;
+
+public record InventoryMovementLine(
+        Long id,
+        Long itemId,
+        MovementKind kind,
+        Long quantityDelta,
+        Long reservedDelta,
+        Long orderId,
+        boolean folded,
+        LocalDateTime createdAt
+) {}
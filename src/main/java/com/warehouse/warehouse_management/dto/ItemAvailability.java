@@ -0,0 +1,4 @@
+package com.warehouse.warehouse_management.dto;
+
+/** Available-to-promise for an item: on hand minus what approved orders have reserved. */
+public record ItemAvailability(Long itemId, long available) {}
@@ -0,0 +1,3 @@
+package com.warehouse.warehouse_management.dto;
+
+public record ItemCatalogStats(long hits, long misses, long evictions, int size, double hitRate) {}
@@ -9,5 +9,14 @@ public record ItemDto(
         @NotBlank String itemName,
         @NotNull @PositiveOrZero Long quantity,
         @NotNull @DecimalMin("0.00") BigDecimal price,
-        @NotNull @Positive Long volume
-) { }
\ No newline at end of file
+        @NotNull @Positive Long volume,
+        Long available // read-only: quantity minus what approved orders have reserved
+) {
+    public ItemDto withAvailable(Long available) {
+        return new ItemDto(itemId, itemName, quantity, price, volume, available);
+    }
+
+    public ItemDto withQuantity(Long quantity) {
+        return new ItemDto(itemId, itemName, quantity, price, volume, available);
+    }
+}
\ No newline at end of file
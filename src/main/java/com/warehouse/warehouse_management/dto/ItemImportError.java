@@ -0,0 +1,4 @@
+package com.warehouse.warehouse_management.dto;
+
+/** A rejected input row; {@code line} is 1-based and counts the CSV header. */
+public record ItemImportError(long line, String itemName, String message) {}
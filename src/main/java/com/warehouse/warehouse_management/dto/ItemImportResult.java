@@ -0,0 +1,7 @@
+package com.warehouse.warehouse_management.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk item import; {@code errors} holds at most the configured number of rows, {@code failed} counts all. */
+public record ItemImportResult(long rows, long upserted, long failed, List<ItemImportError> errors,
+                               long elapsedMillis, long rowsPerSecond) {}
@@ -0,0 +1,12 @@
+package com.warehouse.warehouse_management.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/** One step of a batch line-item edit; {@code quantity} is required for ADD and UPDATE. */
+public record LineItemOperation(@NotNull Op op,
+                                @NotNull Long itemId,
+                                @Min(1) Long quantity) {
+
+    public enum Op { ADD, UPDATE, REMOVE }
+}
@@ -0,0 +1,22 @@
+package com.warehouse.warehouse_management.dto;
+
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** One exported row per order line; the line fields are null for orders without lines. */
+public record OrderExportLine(
+        Long orderNumber,
+        String clientName,
+        OrderStatus status,
+        Priority priority,
+        LocalDateTime submittedDate,
+        BigDecimal total,
+        Long itemId,
+        String itemName,
+        Long requestedQty,
+        BigDecimal price,
+        Long volume
+) {}
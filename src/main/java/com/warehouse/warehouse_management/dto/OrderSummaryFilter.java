@@ -0,0 +1,14 @@
+package com.warehouse.warehouse_management.dto;
+
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+
+import java.time.LocalDate;
+
+/** Optional filters for the manager order list; null fields are not applied, the date range is inclusive. */
+public record OrderSummaryFilter(
+        OrderStatus status,
+        Priority priority,
+        LocalDate from,
+        LocalDate to
+) {}
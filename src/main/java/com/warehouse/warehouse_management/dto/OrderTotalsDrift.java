@@ -0,0 +1,10 @@
+package com.warehouse.warehouse_management.dto;
+
+import java.math.BigDecimal;
+
+public record OrderTotalsDrift(Long orderNumber,
+                               BigDecimal storedSubtotal,
+                               Long storedVolume,
+                               BigDecimal actualSubtotal,
+                               Long actualVolume) {
+}
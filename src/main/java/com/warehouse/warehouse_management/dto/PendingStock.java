@@ -0,0 +1,4 @@
+package com.warehouse.warehouse_management.dto;
+
+/** Summed deltas of an item's movements that are not yet in its snapshot columns. */
+public record PendingStock(Long itemId, long quantity, long reserved) {}
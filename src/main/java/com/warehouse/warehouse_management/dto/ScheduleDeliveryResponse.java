@@ -2,5 +2,8 @@ package com.warehouse.warehouse_management.dto;
 
 import java.util.List;
 
-public record ScheduleDeliveryResponse(OrderResponse order, List<String> truckPlates) {
+public record ScheduleDeliveryResponse(OrderResponse order,
+                                       List<String> truckPlates,
+                                       boolean selectionOptimal,
+                                       long selectionMicros) {
 }
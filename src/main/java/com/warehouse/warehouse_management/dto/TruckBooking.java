@@ -0,0 +1,8 @@
+package com.warehouse.warehouse_management.dto;
+
+import com.warehouse.warehouse_management.entity.Priority;
+
+import java.time.LocalDate;
+
+public record TruckBooking(LocalDate scheduledDate, String vin, Priority priority) {
+}
@@ -15,7 +15,10 @@ import java.util.Set;
 public class Delivery {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "delivery_ids")
+    @TableGenerator(name = "delivery_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.DELIVERIES,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
 
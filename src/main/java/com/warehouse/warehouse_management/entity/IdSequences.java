@@ -0,0 +1,19 @@
+package com.warehouse.warehouse_management.entity;
+
+/**
+ * Names shared by the pooled {@code @TableGenerator}s and by the JDBC import, which allocates from the same rows.
+ * Changing {@link #ALLOCATION_SIZE} needs a migration that moves every row forward by the difference.
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "seq_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ITEMS = "items";
+    public static final String ORDERS = "orders";
+    public static final String DELIVERIES = "deliveries";
+
+    private IdSequences() {}
+}
@@ -0,0 +1,45 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stock change. Rows are only ever inserted (by {@code LedgerQueries}) and later marked folded once the
+ * compaction has added their deltas to the item's {@code quantity} / {@code reserved} snapshot.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "inventory_movements")
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind")
+    private MovementKind kind;
+
+    @Column(name = "quantity_delta")
+    private Long quantityDelta;
+
+    @Column(name = "reserved_delta")
+    private Long reservedDelta;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "folded")
+    private boolean folded;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
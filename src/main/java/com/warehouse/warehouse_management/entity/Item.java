@@ -1,8 +1,10 @@
 package com.warehouse.warehouse_management.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -15,7 +17,10 @@ import java.util.List;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "item_ids")
+    @TableGenerator(name = "item_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.ITEMS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
 
@@ -25,6 +30,15 @@ public class Item {
     @Column(name = "quantity")
     private Long quantity;
 
+    // only ever changed by the conditional updates in StockQueries, never written back from the entity
+    @Column(name = "reserved", insertable = false, updatable = false)
+    private Long reserved = 0L;
+
+    // pending ledger movements, summed in the same select as the row, so the two always describe one moment
+    @Formula("(select coalesce(sum(m.quantity_delta), 0) from inventory_movements m where m.item_id = id and m.folded = false)")
+    @Setter(AccessLevel.NONE)
+    private Long pendingQuantity;
+
     @Column(name = "unit_price")
     private BigDecimal unitPrice;
 
@@ -34,4 +48,9 @@ public class Item {
     @OneToMany(mappedBy = "item", fetch = FetchType.LAZY)
     private List<OrderItem> orderItems = new ArrayList<>();
 
+    /** On hand as readers see it: the snapshot plus the pending movements loaded with it. */
+    public long getCurrentQuantity() {
+        return quantity + (pendingQuantity == null ? 0L : pendingQuantity);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.warehouse.warehouse_management.entity;
+
+public enum MovementKind {
+    RECEIPT,
+    ADJUSTMENT,
+    RESERVATION,
+    RELEASE,
+    SHIPMENT
+}
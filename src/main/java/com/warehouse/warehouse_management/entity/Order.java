@@ -17,7 +17,10 @@ import java.util.List;
 @Entity @Table(name="orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.ORDERS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name="order_number")
     private Long orderNumber;
 
@@ -25,12 +28,22 @@ public class Order {
     @JoinColumn(name="client_id")
     private User client;
 
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
     @Column(name="submitted_date")
     private LocalDateTime submittedDate;
 
     @Column(name = "total")
     private BigDecimal total;
 
+    // running sums over the lines, kept current by every line mutation
+    @Column(name = "subtotal")
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "total_volume")
+    private Long totalVolume = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private OrderStatus status;
@@ -51,4 +64,8 @@ public class Order {
     // helpers
     public void addItem(OrderItem oi){ items.add(oi); oi.setOrder(this); }
     public void removeItem(OrderItem oi){ items.remove(oi); oi.setOrder(null); }
+    public void adjustTotals(BigDecimal priceDelta, long volumeDelta){
+        subtotal = subtotal.add(priceDelta);
+        totalVolume = totalVolume + volumeDelta;
+    }
 }
@@ -0,0 +1,43 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token. A login starts a family; each rotation marks the presented token rotated and
+ * issues its successor in the same family, together with the access token recorded in {@code accessJti}.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @Column(name = "jti")
+    private String jti;
+
+    @Column(name = "family_id")
+    private String familyId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "access_jti")
+    private String accessJti;
+
+    @Column(name = "issued_at")
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+    @Column(name = "revoked")
+    private boolean revoked;
+}
@@ -0,0 +1,20 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Stock held for one line of an approved order. The matching amount sits in {@code items.reserved}
+ * until the order is scheduled (turned into a deduction) or cancelled (given back).
+ */
+@Entity
+@Data
+@Table(name = "stock_reservations")
+public class StockReservation {
+
+    @EmbeddedId
+    private StockReservationId id = new StockReservationId();
+
+    @Column(name = "quantity")
+    private Long quantity;
+}
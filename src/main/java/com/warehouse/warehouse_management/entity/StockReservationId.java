@@ -0,0 +1,37 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Data
+@Embeddable
+public class StockReservationId implements Serializable {
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    public StockReservationId() {}
+    public StockReservationId(Long orderId, Long itemId) {
+        this.orderId = orderId;
+        this.itemId = itemId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockReservationId)) return false;
+        StockReservationId that = (StockReservationId) o;
+        return Objects.equals(orderId, that.orderId) &&
+                Objects.equals(itemId, that.itemId);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, itemId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Claim on one truck for one day. Written next to {@code delivery_trucks}; the primary key
+ * on (truck_vin, reservation_date) rejects a second claim instead of a row lock preventing it.
+ */
+@Entity
+@Data
+@Table(name = "truck_reservations")
+public class TruckReservation {
+
+    @EmbeddedId
+    private TruckReservationId id = new TruckReservationId();
+
+    @Column(name = "delivery_id")
+    private Long deliveryId;
+}
@@ -0,0 +1,38 @@
+package com.warehouse.warehouse_management.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Data
+@Embeddable
+public class TruckReservationId implements Serializable {
+    @Column(name = "truck_vin")
+    private String truckVin;
+
+    @Column(name = "reservation_date")
+    private LocalDate reservationDate;
+
+    public TruckReservationId() {}
+    public TruckReservationId(String truckVin, LocalDate reservationDate) {
+        this.truckVin = truckVin;
+        this.reservationDate = reservationDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TruckReservationId)) return false;
+        TruckReservationId that = (TruckReservationId) o;
+        return Objects.equals(truckVin, that.truckVin) &&
+                Objects.equals(reservationDate, that.reservationDate);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(truckVin, reservationDate);
+    }
+}
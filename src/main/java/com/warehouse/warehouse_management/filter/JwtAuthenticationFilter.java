@@ -1,6 +1,8 @@
 package com.warehouse.warehouse_management.filter;
 
+import com.warehouse.warehouse_management.service.AuthenticatedUser;
 import com.warehouse.warehouse_management.service.JwtService;
+import com.warehouse.warehouse_management.service.TokenRevocations;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +22,7 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
+    private final TokenRevocations revocations;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -32,13 +35,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         var token = authHeader.replace("Bearer ", "");
         var jwt = jwtService.parseToken(token);
-        if (jwt == null || jwt.isExpired()) {
+        // refresh tokens are only good for /auth/refresh; tokens without an id predate revocation and are refused
+        if (jwt == null || jwt.isExpired() || !jwt.isAccessToken() || jwt.getId() == null
+                || revocations.isRevoked(jwt.getId())) {
             filterChain.doFilter(request, response);
             return;
         }
 
         var authentication = new UsernamePasswordAuthenticationToken(
-                jwt.getUserId(),
+                AuthenticatedUser.from(jwt),
                 null,
                 List.of(new SimpleGrantedAuthority("ROLE_" + jwt.getRole()))
         );
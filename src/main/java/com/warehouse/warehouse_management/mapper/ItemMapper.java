@@ -8,19 +8,25 @@ import org.mapstruct.*;
 public interface ItemMapper {
     @Mapping(target = "itemId",   source = "id")
     @Mapping(target = "itemName", source = "name")
+    @Mapping(target = "quantity", source = "currentQuantity")
     @Mapping(target = "price",    source = "unitPrice")
     @Mapping(target = "volume",   source = "packageVolume")
+    @Mapping(target = "available", ignore = true)
+    @Mapping(target = "withAvailable", ignore = true) // copy-with methods, not properties
+    @Mapping(target = "withQuantity", ignore = true)
     ItemDto toDto(Item item);
 
     @Mapping(target = "id",            source = "itemId")
     @Mapping(target = "name",          source = "itemName")
     @Mapping(target = "unitPrice",     source = "price")
     @Mapping(target = "packageVolume", source = "volume")
+    @Mapping(target = "reserved", ignore = true) // owned by stock reservations, never written from a DTO
     Item toEntity(ItemDto dto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "name",          source = "itemName")
     @Mapping(target = "unitPrice",     source = "price")
     @Mapping(target = "packageVolume", source = "volume")
+    @Mapping(target = "reserved", ignore = true)
     void update(@MappingTarget Item entity, ItemDto dto);
 }
@@ -10,5 +10,8 @@ public interface OrderItemMapper {
     @Mapping(target = "itemId",source = "item.id")
     @Mapping(target = "itemName",source = "item.name")
     @Mapping(target = "quantity",source = "requestedQty")
+    @Mapping(target = "available", ignore = true)
+    @Mapping(target = "withAvailable", ignore = true)
+    @Mapping(target = "withQuantity", ignore = true)
     ItemDto toDto(OrderItem orderItem);
 }
@@ -1,15 +1,21 @@
 package com.warehouse.warehouse_management.repository;
 
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.dto.TruckBooking;
 import com.warehouse.warehouse_management.entity.Delivery;
 import com.warehouse.warehouse_management.entity.Order;
+import com.warehouse.warehouse_management.entity.OrderStatus;
 import com.warehouse.warehouse_management.entity.Priority;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,16 +28,50 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
         where d.scheduledDate = :date and t.vin = :vin
     """)
     boolean isTruckBooked(@Param("date") LocalDate date, @Param("vin") String vin);
-    List<Delivery> findByScheduledDateLessThanEqual(LocalDate date);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select d from Delivery d " +
+    // keyset page over (scheduledDate, id); callers pass the last key of the previous page
+    @Query("select new com.warehouse.warehouse_management.dto.DueDelivery(d.id, o.orderNumber, d.scheduledDate) " +
+            "from Delivery d join d.order o " +
+            "where o.status = :status and d.scheduledDate <= :today " +
+            "and (d.scheduledDate > :afterDate or (d.scheduledDate = :afterDate and d.id > :afterId)) " +
+            "order by d.scheduledDate, d.id")
+    List<DueDelivery> findDueAfter(@Param("status") OrderStatus status,
+                                   @Param("today") LocalDate today,
+                                   @Param("afterDate") LocalDate afterDate,
+                                   @Param("afterId") Long afterId,
+                                   Limit limit);
+
+    @Query("select new com.warehouse.warehouse_management.dto.DueDelivery(d.id, o.orderNumber, d.scheduledDate) " +
+            "from Delivery d join d.order o where o.status = :status")
+    List<DueDelivery> findAllWithStatus(@Param("status") OrderStatus status);
+
+    @Query("select new com.warehouse.warehouse_management.dto.DueDelivery(d.id, o.orderNumber, d.scheduledDate) " +
+            "from Delivery d join d.order o where d.id = :id and o.status = :status")
+    Optional<DueDelivery> findWithStatus(@Param("id") Long id, @Param("status") OrderStatus status);
+
+    @Query("select distinct t.vin from Delivery d join d.trucks t where d.id in :ids and t.active = false")
+    List<String> findInactiveTruckVins(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.warehouse.warehouse_management.dto.TruckBooking(d.scheduledDate, t.vin, o.priority) " +
+            "from Delivery d join d.trucks t join d.order o " +
+            "where d.scheduledDate between :from and :to")
+    List<TruckBooking> findBookingsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select distinct d from Delivery d " +
             "join fetch d.trucks t " +
             "join fetch d.order o " +
             "where d.scheduledDate = :date and o.priority = :priority")
-    List<Delivery> lockAllByDateAndPriority(@Param("date") LocalDate date,
+    List<Delivery> findAllByDateAndPriority(@Param("date") LocalDate date,
                                             @Param("priority") Priority priority);
 
+    // guarded by the source date so a concurrent move shows up as a short row count
+    @Modifying(flushAutomatically = true)
+    @Query("update Delivery d set d.scheduledDate = :to " +
+            "where d.id in :ids and d.scheduledDate = :from")
+    int moveAll(@Param("ids") Collection<Long> ids,
+                @Param("from") LocalDate from,
+                @Param("to") LocalDate to);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select o from Order o left join fetch o.items i left join fetch i.item it " +
             "where o.orderNumber = :orderNumber")
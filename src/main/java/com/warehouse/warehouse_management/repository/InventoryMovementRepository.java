@@ -0,0 +1,23 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.InventoryMovementLine;
+import com.warehouse.warehouse_management.dto.PendingStock;
+import com.warehouse.warehouse_management.entity.InventoryMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long>, LedgerQueries {
+
+    @Query("select new com.warehouse.warehouse_management.dto.PendingStock(m.itemId, sum(m.quantityDelta), sum(m.reservedDelta)) " +
+            "from InventoryMovement m where m.folded = false group by m.itemId")
+    List<PendingStock> findPendingTotals();
+
+    @Query("select new com.warehouse.warehouse_management.dto.InventoryMovementLine(m.id, m.itemId, m.kind, " +
+            "m.quantityDelta, m.reservedDelta, m.orderId, m.folded, m.createdAt) " +
+            "from InventoryMovement m where m.itemId = :itemId order by m.id desc")
+    List<InventoryMovementLine> findHistory(@Param("itemId") Long itemId, Limit limit);
+}
@@ -0,0 +1,27 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.ItemDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/** Bulk writes behind the item import, run on the current transaction's connection. */
+public interface ItemImportQueries {
+
+    /** Ids of those named items that exist. */
+    List<Long> findIdsByName(Collection<String> names);
+
+    /**
+     * Reserved units of those named items that exist, keyed case-insensitively like the unique name index. The
+     * rows stay locked, in id order like the reservation batches, until the transaction ends, so the figures
+     * still hold when {@link #upsertAll} runs.
+     */
+    Map<String, Long> findReservedByNameForUpdate(Collection<String> names);
+
+    /**
+     * One JDBC batch: a new name is inserted under {@code firstId + i}, an existing one gets the row's quantity,
+     * price and volume. Callers check quantities against {@link #findReservedByNameForUpdate} first.
+     */
+    void upsertAll(List<ItemDto> rows, long firstId);
+}
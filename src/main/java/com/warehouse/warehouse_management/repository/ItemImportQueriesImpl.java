@@ -0,0 +1,51 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.ItemDto;
+
+import java.util.*;
+
+class ItemImportQueriesImpl implements ItemImportQueries {
+
+    private static final String UPSERT =
+            "insert into items (id, name, quantity, unit_price, package_volume) values (?, ?, ?, ?, ?) as new " +
+            "on duplicate key update " +
+            "quantity = new.quantity, unit_price = new.unit_price, package_volume = new.package_volume";
+
+    private final TransactionJdbc jdbc;
+
+    ItemImportQueriesImpl(TransactionJdbc jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public List<Long> findIdsByName(Collection<String> names) {
+        if (names.isEmpty()) return List.of();
+        return jdbc.queryForList("select id from items where name in (" + marks(names.size()) + ")",
+                Long.class, names.toArray());
+    }
+
+    @Override
+    public Map<String, Long> findReservedByNameForUpdate(Collection<String> names) {
+        Map<String, Long> reserved = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        // locked by primary key, not through the name index, so the locks are taken in id order
+        List<Long> ids = findIdsByName(names);
+        if (ids.isEmpty()) return reserved;
+        jdbc.query("select name, reserved from items where id in (" + marks(ids.size()) + ") order by id for update",
+                rs -> { reserved.put(rs.getString(1), rs.getLong(2)); }, ids.toArray());
+        return reserved;
+    }
+
+    @Override
+    public void upsertAll(List<ItemDto> rows, long firstId) {
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ItemDto r = rows.get(i);
+            args.add(new Object[]{firstId + i, r.itemName(), r.quantity(), r.price(), r.volume()});
+        }
+        jdbc.batchUpdate(UPSERT, args);
+    }
+
+    private static String marks(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+}
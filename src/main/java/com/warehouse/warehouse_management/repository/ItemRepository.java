@@ -1,13 +1,34 @@
 package com.warehouse.warehouse_management.repository;
 
+import com.warehouse.warehouse_management.dto.ItemAvailability;
 import com.warehouse.warehouse_management.entity.Item;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, StockQueries, ItemImportQueries {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("delete from Item i where i.id = :id and i.quantity = 0")
     int deleteIfQuantityZero(@Param("id") Long id);
+
+    // snapshot plus the item's pending ledger movements
+    String AVAILABLE = "i.quantity - i.reserved + coalesce((select sum(m.quantityDelta - m.reservedDelta) " +
+            "from InventoryMovement m where m.itemId = i.id and m.folded = false), 0)";
+
+    @Query("select new com.warehouse.warehouse_management.dto.ItemAvailability(i.id, " + AVAILABLE + ") from Item i")
+    List<ItemAvailability> findAvailability();
+
+    @Query("select new com.warehouse.warehouse_management.dto.ItemAvailability(i.id, " + AVAILABLE + ") " +
+            "from Item i where i.id = :id")
+    Optional<ItemAvailability> findAvailability(@Param("id") Long id);
 }
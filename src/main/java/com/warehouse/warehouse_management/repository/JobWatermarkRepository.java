@@ -0,0 +1,7 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.entity.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+}
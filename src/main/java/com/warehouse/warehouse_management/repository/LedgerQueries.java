@@ -0,0 +1,25 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.PendingStock;
+import com.warehouse.warehouse_management.entity.MovementKind;
+
+import java.util.Collection;
+import java.util.List;
+
+/** JDBC batches over {@code inventory_movements}, run on the current transaction's connection. */
+public interface LedgerQueries {
+
+    /**
+     * Inserts one movement per item. {@code folded} rows are history only: their deltas were already applied to
+     * the snapshot by the caller.
+     */
+    void append(MovementKind kind, Long orderId, long[] itemIds, long[] quantityDeltas, long[] reservedDeltas,
+                boolean folded);
+
+    /**
+     * Adds up to {@code limit} of the oldest pending movements, of the given items or of any item when
+     * {@code itemIds} is empty, to the item snapshots and marks them folded. Each row is claimed with a
+     * conditional update, so concurrent folds never apply a movement twice. Returns what was applied per item.
+     */
+    List<PendingStock> fold(Collection<Long> itemIds, int limit);
+}
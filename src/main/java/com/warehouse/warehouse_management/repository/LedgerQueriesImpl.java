@@ -0,0 +1,64 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.PendingStock;
+import com.warehouse.warehouse_management.entity.MovementKind;
+
+import java.util.*;
+
+class LedgerQueriesImpl implements LedgerQueries {
+
+    private static final String APPEND =
+            "insert into inventory_movements (item_id, kind, quantity_delta, reserved_delta, order_id, folded) " +
+            "values (?, ?, ?, ?, ?, ?)";
+    private static final String CLAIM =
+            "update inventory_movements set folded = true where id = ? and folded = false";
+    private static final String APPLY =
+            "update items set quantity = quantity + ?, reserved = reserved + ? where id = ?";
+
+    private final TransactionJdbc jdbc;
+
+    LedgerQueriesImpl(TransactionJdbc jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void append(MovementKind kind, Long orderId, long[] itemIds, long[] quantityDeltas, long[] reservedDeltas,
+                       boolean folded) {
+        List<Object[]> args = new ArrayList<>(itemIds.length);
+        for (int i = 0; i < itemIds.length; i++) {
+            args.add(new Object[]{itemIds[i], kind.name(), quantityDeltas[i], reservedDeltas[i], orderId, folded});
+        }
+        jdbc.batchUpdate(APPEND, args);
+    }
+
+    @Override
+    public List<PendingStock> fold(Collection<Long> itemIds, int limit) {
+        String sql = "select id, item_id, quantity_delta, reserved_delta from inventory_movements where folded = false"
+                + (itemIds.isEmpty() ? "" : " and item_id in (" + String.join(",", Collections.nCopies(itemIds.size(), "?")) + ")")
+                + " order by id limit " + limit;
+        List<long[]> rows = jdbc.query(sql, (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)},
+                itemIds.toArray());
+        if (rows.isEmpty()) return List.of();
+
+        int[] claimed = jdbc.batchUpdate(CLAIM, rows.stream().map(r -> new Object[]{r[0]}).toList());
+        // item id order, the same order the reservation batches lock rows in
+        TreeMap<Long, long[]> sums = new TreeMap<>();
+        for (int i = 0; i < claimed.length; i++) {
+            if (claimed[i] == 0) continue; // folded by someone else in the meantime
+            long[] r = rows.get(i);
+            long[] s = sums.computeIfAbsent(r[1], id -> new long[2]);
+            s[0] += r[2];
+            s[1] += r[3];
+        }
+        if (sums.isEmpty()) return List.of();
+
+        List<Object[]> args = new ArrayList<>(sums.size());
+        List<PendingStock> applied = new ArrayList<>(sums.size());
+        sums.forEach((id, s) -> {
+            args.add(new Object[]{s[0], s[1], id});
+            applied.add(new PendingStock(id, s[0], s[1]));
+        });
+        jdbc.batchUpdate(APPLY, args);
+        return applied;
+    }
+}
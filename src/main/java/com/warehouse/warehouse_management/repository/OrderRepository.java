@@ -1,30 +1,95 @@
 package com.warehouse.warehouse_management.repository;
 
+import com.warehouse.warehouse_management.dto.OrderExportLine;
+import com.warehouse.warehouse_management.dto.OrderTotalsDrift;
 import com.warehouse.warehouse_management.entity.Order;
 import com.warehouse.warehouse_management.entity.OrderStatus;
 import com.warehouse.warehouse_management.entity.Priority;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderSummaryQueries {
 
-    List<Order> findAllByOrderBySubmittedDateDesc();
-    List<Order> findAllByStatusOrderBySubmittedDateDesc(OrderStatus status);
-    @EntityGraph(attributePaths = {"items", "items.item"})
-    List<Order> findByClientId(Long clientId);
-    @EntityGraph(attributePaths = {"items", "items.item"})
-    List<Order> findByClientIdAndStatus(Long clientId, OrderStatus status);
+    // phase one of the client history page: ids only, straight off idx_orders_client_created.
+    // keyed on createdAt, which never changes, so a resubmitted order cannot skip or repeat across pages
+    @Query("select o.orderNumber from Order o " +
+            "where o.client.id = :clientId and (:status is null or o.status = :status) " +
+            "and (o.createdAt < :beforeDate or (o.createdAt = :beforeDate and o.orderNumber < :beforeNumber)) " +
+            "order by o.createdAt desc, o.orderNumber desc")
+    List<Long> findClientPageIds(@Param("clientId") Long clientId,
+                                 @Param("status") OrderStatus status,
+                                 @Param("beforeDate") LocalDateTime beforeDate,
+                                 @Param("beforeNumber") Long beforeNumber,
+                                 Limit limit);
+    // line edits read-modify-write the running totals, so edits of one order queue on its row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Order> findByOrderNumberAndClientId(Long orderNumber, Long clientId);
+    @EntityGraph(attributePaths = {"items", "items.item"})
+    Optional<Order> findWithItemsByOrderNumberAndClientId(Long orderNumber, Long clientId);
     @EntityGraph(attributePaths = {"items", "items.item", "client", "delivery", "delivery.trucks"})
     Order findWithAllByOrderNumber(Long orderNumber);
+    @EntityGraph(attributePaths = {"items", "items.item"})
+    List<Order> findAllByOrderNumberIn(Collection<Long> orderNumbers);
+
+    // forward-only scan of projection rows; must be consumed inside a transaction and closed.
+    // Integer.MIN_VALUE puts Connector/J into row streaming for this statement alone, which keeps the
+    // connection busy until the stream is closed but needs no server-side cursors (useCursorFetch)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.warehouse.warehouse_management.dto.OrderExportLine(" +
+            "o.orderNumber, concat(c.name, ' ', c.surname), o.status, o.priority, o.submittedDate, o.total, " +
+            "i.id, i.name, oi.requestedQty, oi.price, oi.volume) " +
+            "from Order o join o.client c left join o.items oi left join oi.item i " +
+            "where (:status is null or o.status = :status) " +
+            "and (:from is null or o.submittedDate >= :from) and (:to is null or o.submittedDate < :to) " +
+            "order by o.orderNumber, i.id")
+    Stream<OrderExportLine> streamExport(@Param("status") OrderStatus status,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
     @Query("select o.orderNumber from Order o " +
             "where o.priority = :priority and o.status = :status")
     List<Long> findIdsByPriorityAndStatus(@Param("priority") Priority priority,
                                           @Param("status")   OrderStatus   status);
-}
 
+    @Modifying
+    @Query("update Order o set o.status = :to where o.orderNumber in :ids and o.status = :from")
+    int transitionAll(@Param("ids") Collection<Long> ids,
+                      @Param("from") OrderStatus from,
+                      @Param("to") OrderStatus to);
+
+    @Query("select new com.warehouse.warehouse_management.dto.OrderTotalsDrift(" +
+            "o.orderNumber, o.subtotal, o.totalVolume, coalesce(sum(oi.price), 0), coalesce(sum(oi.volume), 0)) " +
+            "from Order o left join o.items oi " +
+            "where o.status in :statuses " +
+            "group by o.orderNumber, o.subtotal, o.totalVolume " +
+            "having o.subtotal <> coalesce(sum(oi.price), 0) or o.totalVolume <> coalesce(sum(oi.volume), 0)")
+    List<OrderTotalsDrift> findTotalsDrift(@Param("statuses") Collection<OrderStatus> statuses);
+
+    // compare-and-set on the stored values so a line edit made after the check is not overwritten
+    @Modifying
+    @Query("update Order o set o.subtotal = :subtotal, o.totalVolume = :volume " +
+            "where o.orderNumber = :id and o.subtotal = :expectedSubtotal and o.totalVolume = :expectedVolume")
+    int correctTotals(@Param("id") Long id,
+                      @Param("expectedSubtotal") BigDecimal expectedSubtotal,
+                      @Param("expectedVolume") Long expectedVolume,
+                      @Param("subtotal") BigDecimal subtotal,
+                      @Param("volume") Long volume);
+}
@@ -0,0 +1,17 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.OrderSummaryFilter;
+import com.warehouse.warehouse_management.dto.OrderSummaryResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSummaryQueries {
+
+    /**
+     * One page of order summaries (client name joined in) ordered by (submittedDate, orderNumber) descending,
+     * strictly after the given keyset position. Only the filters that are set end up in the query.
+     */
+    List<OrderSummaryResponse> findSummaries(OrderSummaryFilter filter, LocalDateTime beforeDate,
+                                             long beforeNumber, int limit);
+}
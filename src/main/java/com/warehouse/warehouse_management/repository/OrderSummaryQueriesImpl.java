@@ -0,0 +1,42 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.dto.OrderSummaryFilter;
+import com.warehouse.warehouse_management.dto.OrderSummaryResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class OrderSummaryQueriesImpl implements OrderSummaryQueries {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<OrderSummaryResponse> findSummaries(OrderSummaryFilter filter, LocalDateTime beforeDate,
+                                                    long beforeNumber, int limit) {
+        // built per call instead of "(:x is null or ...)" so MySQL can pick the index for the filters present
+        StringBuilder jpql = new StringBuilder(
+                "select new com.warehouse.warehouse_management.dto.OrderSummaryResponse(" +
+                "o.orderNumber, concat(c.name, ' ', c.surname), o.status, o.priority, o.submittedDate) " +
+                "from Order o join o.client c " +
+                "where (o.submittedDate < :beforeDate or (o.submittedDate = :beforeDate and o.orderNumber < :beforeNumber))");
+        if (filter.status() != null) jpql.append(" and o.status = :status");
+        if (filter.priority() != null) jpql.append(" and o.priority = :priority");
+        if (filter.from() != null) jpql.append(" and o.submittedDate >= :from");
+        if (filter.to() != null) jpql.append(" and o.submittedDate < :to");
+        jpql.append(" order by o.submittedDate desc, o.orderNumber desc");
+
+        TypedQuery<OrderSummaryResponse> q = em.createQuery(jpql.toString(), OrderSummaryResponse.class)
+                .setParameter("beforeDate", beforeDate)
+                .setParameter("beforeNumber", beforeNumber)
+                .setMaxResults(limit);
+        if (filter.status() != null) q.setParameter("status", filter.status());
+        if (filter.priority() != null) q.setParameter("priority", filter.priority());
+        if (filter.from() != null) q.setParameter("from", filter.from().atStartOfDay());
+        if (filter.to() != null) q.setParameter("to", filter.to().plusDays(1).atStartOfDay());
+        return q.getResultList();
+    }
+}
@@ -0,0 +1,36 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /** Marks the token used; 0 when it was already rotated, revoked or expired, which is a replay. */
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now " +
+            "where t.jti = :jti and t.rotatedAt is null and t.revoked = false and t.expiresAt > :now")
+    int rotate(@Param("jti") String jti, @Param("now") LocalDateTime now);
+
+    Optional<RefreshToken> findByAccessJti(String accessJti);
+
+    List<RefreshToken> findAllByFamilyIdInAndRevokedFalse(Collection<String> familyIds);
+
+    @Query("select distinct t.familyId from RefreshToken t where t.userId = :userId and t.revoked = false")
+    List<String> findLiveFamilies(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familyId in :familyIds and t.revoked = false")
+    int revokeFamilies(@Param("familyIds") Collection<String> familyIds);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,25 @@
+package com.warehouse.warehouse_management.repository;
+
+/**
+ * Conditional stock updates, each run as one JDBC batch over parallel {@code itemIds}/{@code quantities}
+ * arrays. The conditional ones return per-row update counts in argument order; a 0 means that item did not
+ * have enough and was left untouched.
+ */
+public interface StockQueries {
+
+    /** {@code reserved += q} where at least {@code q} is still unreserved. */
+    int[] reserveAll(long[] itemIds, long[] quantities);
+
+    /** {@code reserved -= q}; gives back a reservation, or undoes a partially applied {@link #reserveAll}. */
+    void releaseAll(long[] itemIds, long[] quantities);
+
+    /**
+     * {@code quantity -= q, reserved -= r}, where {@code r} of the {@code q} units were reserved for the caller:
+     * applies only if at least {@code r} is reserved and the other {@code q - r} are still unreserved, so stock
+     * reserved by other orders is never taken.
+     */
+    int[] consumeAll(long[] itemIds, long[] quantities, long[] reservedParts);
+
+    /** Undoes a partially applied {@link #consumeAll}. */
+    void unconsumeAll(long[] itemIds, long[] quantities, long[] reservedParts);
+}
@@ -0,0 +1,51 @@
+package com.warehouse.warehouse_management.repository;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+class StockQueriesImpl implements StockQueries {
+
+    private static final String RESERVE =
+            "update items set reserved = reserved + ? where id = ? and quantity - reserved >= ?";
+    private static final String RELEASE =
+            "update items set reserved = reserved - ? where id = ?";
+    private static final String CONSUME =
+            "update items set quantity = quantity - ?, reserved = reserved - ? where id = ? and reserved >= ? and quantity - reserved >= ?";
+    private static final String UNCONSUME =
+            "update items set quantity = quantity + ?, reserved = reserved + ? where id = ?";
+
+    private final TransactionJdbc jdbc;
+
+    StockQueriesImpl(TransactionJdbc jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public int[] reserveAll(long[] itemIds, long[] quantities) {
+        return batch(RESERVE, itemIds.length, i -> new Object[]{quantities[i], itemIds[i], quantities[i]});
+    }
+
+    @Override
+    public void releaseAll(long[] itemIds, long[] quantities) {
+        batch(RELEASE, itemIds.length, i -> new Object[]{quantities[i], itemIds[i]});
+    }
+
+    @Override
+    public int[] consumeAll(long[] itemIds, long[] quantities, long[] reservedParts) {
+        return batch(CONSUME, itemIds.length, i -> new Object[]{quantities[i], reservedParts[i], itemIds[i],
+                reservedParts[i], quantities[i] - reservedParts[i]});
+    }
+
+    @Override
+    public void unconsumeAll(long[] itemIds, long[] quantities, long[] reservedParts) {
+        batch(UNCONSUME, itemIds.length, i -> new Object[]{quantities[i], reservedParts[i], itemIds[i]});
+    }
+
+    private int[] batch(String sql, int rows, IntFunction<Object[]> binder) {
+        List<Object[]> args = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) args.add(binder.apply(i));
+        return jdbc.batchUpdate(sql, args);
+    }
+}
@@ -0,0 +1,29 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.entity.StockReservation;
+import com.warehouse.warehouse_management.entity.StockReservationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, StockReservationId> {
+
+    /** Records a reservation for every line of the order in one statement; returns the rows written. */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+    insert into stock_reservations (order_id, item_id, quantity)
+    select oi.order_id, oi.item_id, oi.requested_qty from order_items oi where oi.order_id = :orderId
+""")
+    int reserveLines(@Param("orderId") Long orderId);
+
+    List<StockReservation> findAllByIdOrderId(Long orderId);
+
+    long countByIdOrderId(Long orderId);
+
+    @Modifying
+    @Query("delete from StockReservation r where r.id.orderId = :orderId")
+    int deleteAllForOrder(@Param("orderId") Long orderId);
+}
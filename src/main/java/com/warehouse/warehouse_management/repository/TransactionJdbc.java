@@ -0,0 +1,53 @@
+package com.warehouse.warehouse_management.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Plain JDBC for the repository fragments, on the current transaction's connection. Hibernate does not see
+ * these statements, so each one flushes the persistence context first; otherwise entity changes still queued
+ * in the session would reach the database after the statement that was meant to see them.
+ */
+@Component
+class TransactionJdbc {
+
+    private final JdbcTemplate jdbc;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    TransactionJdbc(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    int[] batchUpdate(String sql, List<Object[]> args) {
+        em.flush();
+        return jdbc.batchUpdate(sql, args);
+    }
+
+    int update(String sql, Object... args) {
+        em.flush();
+        return jdbc.update(sql, args);
+    }
+
+    <T> List<T> query(String sql, RowMapper<T> mapper, Object... args) {
+        em.flush();
+        return jdbc.query(sql, mapper, args);
+    }
+
+    void query(String sql, RowCallbackHandler handler, Object... args) {
+        em.flush();
+        jdbc.query(sql, handler, args);
+    }
+
+    <T> List<T> queryForList(String sql, Class<T> type, Object... args) {
+        em.flush();
+        return jdbc.queryForList(sql, type, args);
+    }
+}
@@ -0,0 +1,18 @@
+package com.warehouse.warehouse_management.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Reservation inserts that tell a taken (truck, day) apart from a real failure. Each row is its own
+ * insert: a duplicate key only skips that row, so a conflict shows up as a short count and the
+ * surrounding transaction stays usable, while any other error (an unknown truck or delivery) is raised.
+ */
+public interface TruckReservationQueries {
+
+    /** Claims {@code vins} for {@code deliveryId} on {@code date}; returns the rows written. */
+    int claim(Long deliveryId, LocalDate date, Collection<String> vins);
+
+    /** Copies the claims of {@code deliveryIds} from one day to another; returns the rows written. */
+    int copyAll(Collection<Long> deliveryIds, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,49 @@
+package com.warehouse.warehouse_management.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+class TruckReservationQueriesImpl implements TruckReservationQueries {
+
+    private static final String INSERT =
+            "insert into truck_reservations (truck_vin, reservation_date, delivery_id) values (?, ?, ?)";
+
+    private final TransactionJdbc jdbc;
+
+    TruckReservationQueriesImpl(TransactionJdbc jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public int claim(Long deliveryId, LocalDate date, Collection<String> vins) {
+        int written = 0;
+        for (String vin : vins) written += insert(vin, date, deliveryId);
+        return written;
+    }
+
+    @Override
+    public int copyAll(Collection<Long> deliveryIds, LocalDate from, LocalDate to) {
+        if (deliveryIds.isEmpty()) return 0;
+        String marks = String.join(",", Collections.nCopies(deliveryIds.size(), "?"));
+        List<Object[]> claims = jdbc.query(
+                "select truck_vin, delivery_id from truck_reservations where reservation_date = ? and delivery_id in (" + marks + ")",
+                (rs, n) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                Stream.concat(Stream.of(from), deliveryIds.stream()).toArray());
+        int written = 0;
+        for (Object[] c : claims) written += insert((String) c[0], to, (Long) c[1]);
+        return written;
+    }
+
+    private int insert(String vin, LocalDate date, Long deliveryId) {
+        try {
+            return jdbc.update(INSERT, vin, date, deliveryId);
+        } catch (DuplicateKeyException taken) {
+            return 0;
+        }
+    }
+}
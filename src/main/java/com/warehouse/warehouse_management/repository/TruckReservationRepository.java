@@ -0,0 +1,33 @@
+package com.warehouse.warehouse_management.repository;
+
+import com.warehouse.warehouse_management.entity.TruckReservation;
+import com.warehouse.warehouse_management.entity.TruckReservationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface TruckReservationRepository extends JpaRepository<TruckReservation, TruckReservationId>, TruckReservationQueries {
+
+    @Query("""
+    select r.id.truckVin from TruckReservation r
+    where r.id.reservationDate = :date and r.id.truckVin in :vins and r.deliveryId <> :deliveryId
+""")
+    List<String> findTakenByOthers(@Param("date") LocalDate date,
+                                   @Param("vins") Collection<String> vins,
+                                   @Param("deliveryId") Long deliveryId);
+
+    @Modifying
+    @Query("delete from TruckReservation r where r.deliveryId = :deliveryId and r.id.reservationDate = :date")
+    int release(@Param("deliveryId") Long deliveryId, @Param("date") LocalDate date);
+
+    long countByDeliveryIdInAndIdReservationDate(Collection<Long> deliveryIds, LocalDate date);
+
+    @Modifying
+    @Query("delete from TruckReservation r where r.deliveryId in :deliveryIds and r.id.reservationDate = :date")
+    int releaseAll(@Param("deliveryIds") Collection<Long> deliveryIds, @Param("date") LocalDate date);
+}
@@ -24,6 +24,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     private final UserRepository users;
     private final UserMapper mapper;
     private final PasswordEncoder encoder;
+    private final RefreshTokens refreshTokens;
+    private final UserCache userCache;
 
     @Override
     public UserDto createUser(CreateUserRequest req) {
@@ -55,7 +57,11 @@ public class AdminUserServiceImpl implements AdminUserService {
                 && users.existsByEmailIgnoreCase(req.email())) {
             throw new BusinessRuleExceptions("Email already in use");
         }
+        Role before = u.getRole();
         mapper.update(u, req);
+        // live tokens carry the old role
+        if (u.getRole() != before) refreshTokens.revokeAllForUser(id);
+        userCache.invalidate(id);
         return mapper.toDto(users.save(u));
     }
 
@@ -63,6 +69,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Override
     public void deleteUser(Long id) {
         if (!users.existsById(id)) throw new BusinessRuleExceptions("User not found");
+        refreshTokens.revokeAllForUser(id);
+        userCache.invalidate(id);
         users.deleteById(id);
     }
 }
@@ -0,0 +1,25 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.UserDto;
+import com.warehouse.warehouse_management.entity.Role;
+import com.warehouse.warehouse_management.entity.User;
+
+/**
+ * The caller as the access token describes them; the authentication principal for JWT requests. Built from
+ * the claims alone, so it is as current as the token (at most {@code accessTokenExpiration} old). Tokens are
+ * issued from the same fields.
+ */
+public record AuthenticatedUser(Long id, String email, String name, String surname, Role role) {
+
+    public static AuthenticatedUser from(Jwt jwt) {
+        return new AuthenticatedUser(jwt.getUserId(), jwt.getEmail(), jwt.getName(), jwt.getSurname(), jwt.getRole());
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), user.getSurname(), user.getRole());
+    }
+
+    public UserDto toDto() {
+        return new UserDto(id, name, surname, email, role);
+    }
+}
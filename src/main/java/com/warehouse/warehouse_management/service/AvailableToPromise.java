@@ -0,0 +1,112 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.ItemAvailability;
+import com.warehouse.warehouse_management.entity.Item;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory available-to-promise ({@code quantity - reserved}) per item, for reads that should not hit
+ * the database.
+ * <p>
+ * Each item has a {@link LongAdder}, so concurrent approvals of the same hot item do not contend on one
+ * counter. Deltas are applied after the surrounding transaction commits. Other nodes' changes are picked
+ * up by a periodic reload. The figure is advisory; the conditional updates in {@code StockQueries} are what
+ * actually guard the stock.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailableToPromise {
+
+    private final ItemRepository items;
+
+    private volatile Map<Long, LongAdder> available = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "#{@stockConfig.atpReloadIntervalMillis}",
+            initialDelayString = "#{@stockConfig.atpReloadIntervalMillis}")
+    public synchronized void reload() {
+        Map<Long, LongAdder> fresh = new ConcurrentHashMap<>();
+        for (ItemAvailability a : items.findAvailability()) fresh.put(a.itemId(), adder(a.available()));
+        available = fresh;
+        if (!loaded) log.info("Available-to-promise loaded for {} items", fresh.size());
+        loaded = true;
+    }
+
+    // ---- reads ----
+
+    public long available(Long itemId) {
+        ensureLoaded();
+        LongAdder a = available.get(itemId);
+        if (a != null) return a.sum();
+        // created on another node since the last reload
+        return items.findAvailability(itemId).map(ItemAvailability::available).orElse(0L);
+    }
+
+    /** Availability of the given items, or of every item when {@code itemIds} is empty; unknown ids are skipped. */
+    public List<ItemAvailability> availability(Collection<Long> itemIds) {
+        ensureLoaded();
+        Map<Long, LongAdder> snapshot = available;
+        Collection<Long> ids = itemIds.isEmpty() ? new TreeSet<>(snapshot.keySet()) : itemIds;
+        List<ItemAvailability> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            LongAdder a = snapshot.get(id);
+            if (a != null) out.add(new ItemAvailability(id, a.sum()));
+        }
+        return out;
+    }
+
+    // ---- writes (applied after commit) ----
+
+    /** Adds {@code sign * quantities[i]} to item {@code itemIds[i]}: -1 when stock is reserved, +1 when released. */
+    public void adjust(long[] itemIds, long[] quantities, int sign) {
+        long[] ids = itemIds.clone();
+        long[] qty = quantities.clone();
+        TransactionHooks.afterCommit(() -> {
+            Map<Long, LongAdder> current = available;
+            for (int i = 0; i < ids.length; i++) {
+                LongAdder a = current.get(ids[i]);
+                if (a != null) a.add(sign * qty[i]);
+            }
+        });
+    }
+
+    public void itemSaved(Item item) {
+        Long id = item.getId();
+        long value = nz(item.getQuantity()) - nz(item.getReserved());
+        TransactionHooks.afterCommit(() -> available.put(id, adder(value)));
+    }
+
+    public void itemRemoved(Long itemId) {
+        TransactionHooks.afterCommit(() -> available.remove(itemId));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) reload();
+    }
+
+    private static LongAdder adder(long value) {
+        LongAdder a = new LongAdder();
+        a.add(value);
+        return a;
+    }
+
+    private static long nz(Long v) {
+        return v == null ? 0L : v;
+    }
+}
@@ -0,0 +1,119 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.Delivery;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fulfils each delivery when it comes due instead of waiting for the nightly job.
+ * <p>
+ * Due times are registered when a booking commits and reloaded from the database on startup.
+ * A single daemon thread takes entries off a {@link DelayQueue}; before acting it re-reads the
+ * delivery, so entries for deliveries that were moved or already fulfilled are re-queued or
+ * dropped. The nightly {@code DeliveryStatusScheduler} run stays as a safety net.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryCompletionQueue {
+
+    static final long RETRY_MILLIS = 60_000L;
+
+    private final DeliveryRepository deliveries;
+    private final DeliveryFulfillment fulfillment;
+    private final DeliveryConfig config;
+
+    private final DelayQueue<Due> queue = new DelayQueue<>();
+    private volatile Thread worker;
+
+    record Due(long deliveryId, long dueAtMillis) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Due) other).dueAtMillis);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (worker != null) return;
+        reload();
+        Thread t = new Thread(this::run, "delivery-completion");
+        t.setDaemon(true);
+        t.start();
+        worker = t;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) worker.interrupt();
+        worker = null;
+    }
+
+    public void reload() {
+        List<DueDelivery> pending = deliveries.findAllWithStatus(OrderStatus.UNDER_DELIVERY);
+        queue.clear();
+        pending.forEach(d -> queue.offer(new Due(d.deliveryId(), dueAt(d.scheduledDate()))));
+        log.info("Delivery completion queue loaded: {} pending deliveries", pending.size());
+    }
+
+    /** Registers the delivery's due time once the booking transaction commits. */
+    public void schedule(Delivery d) {
+        Due due = new Due(d.getId(), dueAt(d.getScheduledDate()));
+        TransactionHooks.afterCommit(() -> queue.offer(due));
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                fire(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void fire(Due due) {
+        try {
+            Optional<DueDelivery> current = deliveries.findWithStatus(due.deliveryId(), OrderStatus.UNDER_DELIVERY);
+            if (current.isEmpty()) return; // fulfilled, cancelled or gone
+
+            long at = dueAt(current.get().scheduledDate());
+            if (at > System.currentTimeMillis()) {
+                queue.offer(new Due(due.deliveryId(), at)); // moved to a later date meanwhile
+                return;
+            }
+            fulfillment.fulfil(List.of(current.get()));
+        } catch (RuntimeException e) {
+            log.warn("Completing delivery {} failed, retrying in {} s", due.deliveryId(), RETRY_MILLIS / 1000, e);
+            queue.offer(new Due(due.deliveryId(), System.currentTimeMillis() + RETRY_MILLIS));
+        }
+    }
+
+    long dueAt(LocalDate date) {
+        return date.atTime(config.getCompletionTime()).atZone(config.getZone()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,44 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import com.warehouse.warehouse_management.repository.TruckRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Moves due deliveries' orders from UNDER_DELIVERY to FULFILLED and puts their trucks back
+ * into service, with set-based updates. Shared by the nightly job and the completion queue;
+ * the status guard makes running both on the same delivery harmless.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class DeliveryFulfillment {
+
+    private final OrderRepository orders;
+    private final DeliveryRepository deliveries;
+    private final TruckRepository trucks;
+    private final TruckCalendar calendar;
+
+    public record Result(int fulfilled, int reactivated) {}
+
+    public Result fulfil(List<DueDelivery> due) {
+        if (due.isEmpty()) return new Result(0, 0);
+        List<Long> ids = due.stream().map(DueDelivery::deliveryId).toList();
+        List<Long> orderNumbers = due.stream().map(DueDelivery::orderNumber).toList();
+
+        int fulfilled = orders.transitionAll(orderNumbers, OrderStatus.UNDER_DELIVERY, OrderStatus.FULFILLED);
+        List<String> vins = deliveries.findInactiveTruckVins(ids);
+        if (!vins.isEmpty()) {
+            trucks.activateAll(vins);
+            calendar.setActive(vins, true);
+        }
+        return new Result(fulfilled, vins.size());
+    }
+}
@@ -0,0 +1,128 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.TruckBooking;
+import com.warehouse.warehouse_management.entity.Delivery;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.entity.Truck;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.TruckReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Frees truck capacity on a date for an URGENT order by moving NORMAL deliveries away.
+ * <p>
+ * Only as many deliveries as needed are bumped (largest freed capacity first, then any that
+ * turn out to be unnecessary are put back). Each bumped delivery keeps its trucks and moves
+ * to the nearest later weekday on which none of them is booked, using bookings loaded once
+ * for the whole look-ahead window. Moves are applied with one bulk UPDATE per target date.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryPreemption {
+
+    private final DeliveryRepository deliveries;
+    private final TruckReservationRepository reservations;
+    private final TruckCalendar calendar;
+    private final DeliveryConfig config;
+
+    /**
+     * Bumps NORMAL deliveries off {@code date} until {@code fits} accepts the pool of free trucks.
+     * Returns the enlarged pool; throws if even bumping every NORMAL delivery is not enough.
+     */
+    public List<Truck> makeRoom(LocalDate date, List<Truck> free, Predicate<List<Truck>> fits) {
+        LocalDate today = LocalDate.now();
+        List<Delivery> candidates = new ArrayList<>(deliveries.findAllByDateAndPriority(date, Priority.NORMAL));
+        candidates.sort(Comparator.comparingLong((Delivery d) -> usableCapacity(d, date, today)).reversed());
+
+        List<Delivery> bumped = new ArrayList<>();
+        List<Truck> pool = new ArrayList<>(free);
+        for (Delivery d : candidates) {
+            if (fits.test(pool)) break;
+            bumped.add(d);
+            pool.addAll(usableTrucks(d, date, today));
+        }
+        if (!fits.test(pool))
+            throw new BusinessRuleExceptions("Not enough truck capacity on " + date + " even after moving NORMAL deliveries");
+
+        // a later, larger delivery may have made earlier bumps unnecessary
+        for (int i = bumped.size() - 1; i >= 0; i--) {
+            Delivery d = bumped.get(i);
+            List<Truck> without = new ArrayList<>(pool);
+            without.removeAll(usableTrucks(d, date, today));
+            if (fits.test(without)) {
+                bumped.remove(i);
+                pool = without;
+            }
+        }
+
+        if (!bumped.isEmpty()) cascade(date, bumped);
+        return pool;
+    }
+
+    private void cascade(LocalDate date, List<Delivery> bumped) {
+        LocalDate last = date.plusDays(config.getMaxLookaheadDays());
+        Map<LocalDate, Set<String>> booked = new HashMap<>();
+        for (TruckBooking b : deliveries.findBookingsBetween(date.plusDays(1), last)) {
+            booked.computeIfAbsent(b.scheduledDate(), x -> new HashSet<>()).add(b.vin());
+        }
+
+        Map<LocalDate, List<Delivery>> moves = new TreeMap<>();
+        for (Delivery d : bumped) {
+            Set<String> vins = new HashSet<>();
+            d.getTrucks().forEach(t -> vins.add(t.getVin()));
+
+            LocalDate target = null;
+            for (LocalDate day = date.plusDays(1); !day.isAfter(last); day = day.plusDays(1)) {
+                if (isWeekend(day)) continue;
+                Set<String> taken = booked.computeIfAbsent(day, x -> new HashSet<>());
+                if (Collections.disjoint(taken, vins)) {
+                    taken.addAll(vins);
+                    target = day;
+                    break;
+                }
+            }
+            if (target == null)
+                throw new BusinessRuleExceptions("No free day within " + config.getMaxLookaheadDays()
+                        + " days to move delivery of order " + d.getOrder().getOrderNumber());
+            moves.computeIfAbsent(target, x -> new ArrayList<>()).add(d);
+        }
+
+        moves.forEach((to, group) -> {
+            List<Long> ids = group.stream().map(Delivery::getId).toList();
+            int moved = deliveries.moveAll(ids, date, to);
+            // counted from the rows themselves: a delivery may hold fewer claims than trucks, e.g. one
+            // double-booked before reservations existed, whose truck's day went to the other delivery
+            long claims = reservations.countByDeliveryIdInAndIdReservationDate(ids, date);
+            // the target day was free when planned; a short copy means someone claimed it since
+            if (moved != ids.size() || reservations.copyAll(ids, date, to) != claims)
+                throw new BusinessRuleExceptions("Deliveries on " + date + " changed concurrently, please retry");
+            reservations.releaseAll(ids, date);
+            group.forEach(d -> calendar.move(date, to, d.getTrucks(), Priority.NORMAL));
+        });
+        log.info("Moved {} NORMAL deliveries off {} to {}", bumped.size(), date, moves.keySet());
+    }
+
+    private static List<Truck> usableTrucks(Delivery d, LocalDate date, LocalDate today) {
+        return d.getTrucks().stream().filter(t -> date.isAfter(today) || t.isActive()).toList();
+    }
+
+    private static long usableCapacity(Delivery d, LocalDate date, LocalDate today) {
+        return usableTrucks(d, date, today).stream()
+                .mapToLong(t -> t.getContainerVolume() == null ? 0L : t.getContainerVolume()).sum();
+    }
+
+    private static boolean isWeekend(LocalDate d) {
+        DayOfWeek w = d.getDayOfWeek();
+        return w == DayOfWeek.SATURDAY || w == DayOfWeek.SUNDAY;
+    }
+}
@@ -0,0 +1,178 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.InventoryConfig;
+import com.warehouse.warehouse_management.dto.InventoryMovementLine;
+import com.warehouse.warehouse_management.dto.PendingStock;
+import com.warehouse.warehouse_management.entity.MovementKind;
+import com.warehouse.warehouse_management.repository.InventoryMovementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stock changes as an append-only ledger over the {@code items.quantity} / {@code reserved} snapshot.
+ * <p>
+ * Movements that can only add availability or leave it unchanged (receipts, releases, shipments of reserved
+ * stock) are {@link #record recorded} as pending inserts and never touch the item row, so they do not queue
+ * behind each other on hot items. A leased compaction {@link #compact folds} pending rows into the snapshot a
+ * chunk at a time. Readers get the item with its pending movements already applied from the {@link ItemCatalog},
+ * which reads both in one statement; folding moves quantity between the two without changing their sum, so
+ * cached items stay right whichever node folds. This node's movements evict their items after commit; the
+ * pending totals are reloaded on a timer, and items whose total moved since the last load are evicted so
+ * other nodes' movements show up too.
+ * <p>
+ * Because pending rows never take availability away, a check against the snapshot alone cannot oversell; it
+ * can only be stale in the cautious direction, which {@link #fold} fixes on demand.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLedger {
+
+    static final String JOB = "inventory-compaction";
+
+    private final InventoryMovementRepository movements;
+    private final ItemCatalog catalog;
+    private final JobLeaseManager leases;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryConfig config;
+
+    private volatile Map<Long, LongAdder> pendingQuantity = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "#{@inventoryConfig.tailReloadIntervalMillis}",
+            initialDelayString = "#{@inventoryConfig.tailReloadIntervalMillis}")
+    public synchronized void reload() {
+        Map<Long, LongAdder> fresh = new ConcurrentHashMap<>();
+        for (PendingStock p : movements.findPendingTotals()) {
+            LongAdder a = new LongAdder();
+            a.add(p.quantity());
+            fresh.put(p.itemId(), a);
+        }
+        Map<Long, LongAdder> previous = pendingQuantity;
+        pendingQuantity = fresh;
+        if (!loaded) {
+            loaded = true;
+            return;
+        }
+        Set<Long> moved = new HashSet<>();
+        previous.forEach((id, a) -> {
+            if (sum(fresh.get(id)) != a.sum()) moved.add(id);
+        });
+        fresh.forEach((id, a) -> {
+            if (sum(previous.get(id)) != a.sum()) moved.add(id);
+        });
+        if (!moved.isEmpty()) catalog.invalidate(moved);
+    }
+
+    @Scheduled(fixedDelayString = "#{@inventoryConfig.compactionIntervalMillis}")
+    public void compactPeriodically() {
+        // no minimum hold: a run that just finished must not block the next tick, or the interval stretches to it
+        leases.runExclusively(JOB, 0, this::compact);
+    }
+
+    // ---- reads ----
+
+    /** Quantity moved by this item's pending movements, as far as this node knows. */
+    public long pendingQuantity(Long itemId) {
+        if (!loaded) reload();
+        return sum(pendingQuantity.get(itemId));
+    }
+
+    /** The item's movements, newest first. */
+    public List<InventoryMovementLine> history(Long itemId, int limit) {
+        return movements.findHistory(itemId, Limit.of(limit));
+    }
+
+    // ---- writes ----
+
+    /** Appends pending movements; the snapshot is left alone until the next fold. */
+    public void record(MovementKind kind, Long orderId, long[] itemIds, long[] quantityDeltas, long[] reservedDeltas) {
+        movements.append(kind, orderId, itemIds, quantityDeltas, reservedDeltas, false);
+        long[] ids = itemIds.clone();
+        long[] qty = quantityDeltas.clone();
+        catalog.invalidate(ids);
+        TransactionHooks.afterCommit(() -> addToTail(ids, qty, 1));
+    }
+
+    /** Appends movements the caller has already applied to the snapshot; kept for history only. */
+    public void recordApplied(MovementKind kind, Long orderId, long[] itemIds, long[] quantityDeltas, long[] reservedDeltas) {
+        movements.append(kind, orderId, itemIds, quantityDeltas, reservedDeltas, true);
+    }
+
+    /**
+     * Folds the pending movements of the given items into their snapshots within the caller's transaction, for
+     * writers that need the exact figures (absolute updates, deletes, reservations retried after a shortage).
+     * Returns the number of items whose snapshot changed.
+     */
+    public int fold(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return 0;
+        int changed = 0;
+        List<PendingStock> applied;
+        do {
+            applied = movements.fold(itemIds, config.getCompactionChunkSize());
+            folded(applied);
+            changed += applied.size();
+        } while (!applied.isEmpty());
+        return changed;
+    }
+
+    /** Folds every pending movement, one chunk per transaction. Returns the number of items touched. */
+    public int compact() {
+        long started = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int touched = 0;
+        while (true) {
+            List<PendingStock> applied = tx.execute(s -> {
+                List<PendingStock> chunk = movements.fold(List.of(), config.getCompactionChunkSize());
+                folded(chunk);
+                return chunk;
+            });
+            if (applied == null || applied.isEmpty()) break;
+            touched += applied.size();
+        }
+        if (touched > 0)
+            log.info("Inventory compaction folded movements of {} items in {} ms", touched,
+                    (System.nanoTime() - started) / 1_000_000L);
+        return touched;
+    }
+
+    // the snapshot now holds what the tail held, so the tail shrinks by the same amount. Cached items stay:
+    // their quantity is snapshot plus pending, which a fold leaves unchanged
+    private void folded(List<PendingStock> applied) {
+        if (applied.isEmpty()) return;
+        long[] ids = new long[applied.size()];
+        long[] qty = new long[applied.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = applied.get(i).itemId();
+            qty[i] = applied.get(i).quantity();
+        }
+        TransactionHooks.afterCommit(() -> addToTail(ids, qty, -1));
+    }
+
+    private static long sum(LongAdder a) {
+        return a == null ? 0L : a.sum();
+    }
+
+    private void addToTail(long[] ids, long[] qty, int sign) {
+        Map<Long, LongAdder> tail = pendingQuantity;
+        for (int i = 0; i < ids.length; i++) {
+            tail.computeIfAbsent(ids[i], id -> new LongAdder()).add(sign * qty[i]);
+        }
+    }
+}
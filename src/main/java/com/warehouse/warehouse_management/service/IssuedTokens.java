@@ -0,0 +1,4 @@
+package com.warehouse.warehouse_management.service;
+
+/** An access token and the refresh token issued with it. */
+public record IssuedTokens(Jwt accessToken, Jwt refreshToken) {}
@@ -0,0 +1,157 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.ItemCatalogConfig;
+import com.warehouse.warehouse_management.dto.ItemCatalogStats;
+import com.warehouse.warehouse_management.dto.ItemDto;
+import com.warehouse.warehouse_management.mapper.ItemMapper;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of item snapshots, by id (bounded, least recently used goes first) and as the full list.
+ * Quantities include the pending ledger movements, read in the same statement as the row (see
+ * {@link com.warehouse.warehouse_management.entity.Item#getCurrentQuantity}), so a fold never changes them.
+ * <p>
+ * Writers call {@link #invalidate} and the entries go once the transaction commits. Every invalidation bumps a
+ * generation, and a load that started before it is not stored, so a slow read can never put back a value that
+ * a commit has just replaced. Entries also expire after {@code ttlSeconds}, which bounds how long changes made
+ * by other nodes stay invisible here.
+ */
+@Component
+public class ItemCatalog {
+
+    private record Entry(ItemDto item, long loadedAt) {}
+    private record Listing(List<ItemDto> items, long loadedAt) {}
+
+    private final ItemRepository items;
+    private final ItemMapper itemMapper;
+    private final ItemCatalogConfig config;
+
+    private final LinkedHashMap<Long, Entry> byId;
+    private Listing listing;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ItemCatalog(ItemRepository items, ItemMapper itemMapper, ItemCatalogConfig config) {
+        this.items = items;
+        this.itemMapper = itemMapper;
+        this.config = config;
+        this.byId = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= config.getMaxEntries()) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public Optional<ItemDto> find(Long id) {
+        long gen;
+        synchronized (this) {
+            Entry e = byId.get(id);
+            if (e != null && fresh(e.loadedAt())) {
+                hits.increment();
+                return Optional.of(e.item());
+            }
+            misses.increment();
+            gen = generation;
+        }
+        Optional<ItemDto> loaded = items.findById(id).map(itemMapper::toDto);
+        loaded.ifPresent(dto -> store(gen, List.of(dto)));
+        return loaded;
+    }
+
+    /** Snapshots of the given ids that exist; the ones not cached are loaded with a single query. */
+    public Map<Long, ItemDto> findAll(Collection<Long> ids) {
+        Map<Long, ItemDto> out = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long gen;
+        synchronized (this) {
+            for (Long id : ids) {
+                Entry e = byId.get(id);
+                if (e != null && fresh(e.loadedAt())) out.put(id, e.item());
+                else missing.add(id);
+            }
+            hits.add(out.size());
+            misses.add(missing.size());
+            gen = generation;
+        }
+        if (missing.isEmpty()) return out;
+
+        List<ItemDto> loaded = items.findAllById(missing).stream().map(itemMapper::toDto).toList();
+        store(gen, loaded);
+        loaded.forEach(dto -> out.put(dto.itemId(), dto));
+        return out;
+    }
+
+    /** Every item, ordered by id. */
+    public List<ItemDto> list() {
+        long gen;
+        synchronized (this) {
+            if (listing != null && fresh(listing.loadedAt())) {
+                hits.increment();
+                return listing.items();
+            }
+            misses.increment();
+            gen = generation;
+        }
+        List<ItemDto> loaded = items.findAll().stream()
+                .map(itemMapper::toDto)
+                .sorted(Comparator.comparing(ItemDto::itemId))
+                .toList();
+        synchronized (this) {
+            if (gen == generation) listing = new Listing(loaded, System.nanoTime());
+        }
+        return loaded;
+    }
+
+    /** Drops the given items and the full listing once the current transaction commits. */
+    public void invalidate(Collection<Long> ids) {
+        List<Long> copy = List.copyOf(ids);
+        TransactionHooks.afterCommit(() -> evict(copy));
+    }
+
+    public void invalidate(long[] ids) {
+        invalidate(Arrays.stream(ids).boxed().toList());
+    }
+
+    /** Drops every entry once the current transaction commits; for bulk writes that do not know their ids. */
+    public void invalidateAll() {
+        TransactionHooks.afterCommit(this::clear);
+    }
+
+    public synchronized ItemCatalogStats stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        return new ItemCatalogStats(h, m, evictions.sum(), byId.size(), h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    private synchronized void evict(List<Long> ids) {
+        generation++;
+        ids.forEach(byId::remove);
+        listing = null;
+    }
+
+    private synchronized void clear() {
+        generation++;
+        byId.clear();
+        listing = null;
+    }
+
+    private synchronized void store(long gen, List<ItemDto> loaded) {
+        if (gen != generation) return;
+        long now = System.nanoTime();
+        for (ItemDto dto : loaded) byId.put(dto.itemId(), new Entry(dto, now));
+    }
+
+    private boolean fresh(long loadedAt) {
+        return System.nanoTime() - loadedAt < config.getTtlSeconds() * 1_000_000_000L;
+    }
+}
@@ -0,0 +1,238 @@
+package com.warehouse.warehouse_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.warehouse_management.config.ItemImportConfig;
+import com.warehouse.warehouse_management.dto.DataFormat;
+import com.warehouse.warehouse_management.dto.ItemDto;
+import com.warehouse.warehouse_management.dto.ItemImportError;
+import com.warehouse.warehouse_management.dto.ItemImportResult;
+import com.warehouse.warehouse_management.entity.IdSequences;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Creates or updates items in bulk from CSV or NDJSON, keyed on the unique item name.
+ * <p>
+ * The body is read line by line and written in JDBC batches of {@code batchSize} rows, each in its own
+ * transaction, so memory stays bounded by one batch and a rejected batch does not undo the ones before it.
+ * New rows take their ids from the same pooled sequence Hibernate uses, one block per batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImportService {
+
+    static final String[] CSV_HEADER = {"itemName", "quantity", "price", "volume"};
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final int LOG_EVERY_BATCHES = 10;
+
+    private final ItemRepository items;
+    private final PooledIds ids;
+    private final ItemCatalog catalog;
+    private final AvailableToPromise atp;
+    private final InventoryLedger ledger;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ItemImportConfig config;
+
+    private interface RowParser {
+        ItemDto parse(String line) throws JsonProcessingException;
+    }
+
+    private record Row(long line, ItemDto item) {}
+
+    private static final class Progress {
+        final int maxErrors;
+        final List<ItemImportError> errors = new ArrayList<>();
+        long rows;
+        long upserted;
+        long failed;
+        long batches;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(ItemImportError error) {
+            failed++;
+            if (errors.size() < maxErrors) errors.add(error);
+        }
+    }
+
+    public ItemImportResult importItems(DataFormat format, InputStream in) {
+        long started = System.nanoTime();
+        Progress p = new Progress(config.getMaxReportedErrors());
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int batchSize = Math.max(1, config.getBatchSize());
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            long lineNo = 0;
+            RowParser parser;
+            if (format == DataFormat.CSV) {
+                parser = csvParser(reader.readLine());
+                lineNo++;
+            } else {
+                parser = line -> objectMapper.readValue(line, ItemDto.class);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                p.rows++;
+                ItemDto item = null;
+                try {
+                    item = parser.parse(line);
+                    validate(item);
+                    batch.add(new Row(lineNo, item));
+                } catch (JsonProcessingException e) {
+                    p.fail(new ItemImportError(lineNo, null, e.getOriginalMessage()));
+                } catch (IllegalArgumentException e) {
+                    p.fail(new ItemImportError(lineNo, item == null ? null : item.itemName(), e.getMessage()));
+                }
+                if (batch.size() == batchSize) {
+                    write(tx, batch, p);
+                    batch.clear();
+                }
+            }
+            write(tx, batch, p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // updated rows are not known by id, and even a partial import has committed batches
+            catalog.invalidateAll();
+            atp.reload();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000L;
+        long rate = elapsedMillis == 0 ? p.rows : p.rows * 1000L / elapsedMillis;
+        log.info("Item import done: {} rows, {} upserted, {} failed in {} ms ({} rows/s)",
+                p.rows, p.upserted, p.failed, elapsedMillis, rate);
+        return new ItemImportResult(p.rows, p.upserted, p.failed, List.copyOf(p.errors), elapsedMillis, rate);
+    }
+
+    private void write(TransactionTemplate tx, List<Row> batch, Progress p) {
+        if (batch.isEmpty()) return;
+        long firstId = ids.allocate(IdSequences.ITEMS, batch.size());
+        try {
+            List<ItemImportError> rejected = tx.execute(s -> {
+                List<String> names = batch.stream().map(r -> r.item().itemName()).toList();
+                // rows are absolute quantities, so existing items take their pending movements in first
+                ledger.fold(items.findIdsByName(names));
+                // checked under the row locks, so a reservation cannot slip in before the upsert
+                Map<String, Long> reserved = items.findReservedByNameForUpdate(names);
+                List<ItemImportError> below = new ArrayList<>();
+                List<ItemDto> accepted = new ArrayList<>(batch.size());
+                for (Row row : batch) {
+                    Long held = reserved.get(row.item().itemName());
+                    if (held != null && row.item().quantity() < held) {
+                        below.add(new ItemImportError(row.line(), row.item().itemName(),
+                                "Quantity cannot drop below the " + held + " units reserved by approved orders"));
+                    } else {
+                        accepted.add(row.item());
+                    }
+                }
+                items.upsertAll(accepted, firstId);
+                return below;
+            });
+            if (rejected != null) rejected.forEach(p::fail);
+            p.upserted += batch.size() - (rejected == null ? 0 : rejected.size());
+        } catch (DataAccessException e) {
+            // the driver sends the batch as one statement, so a bad row takes the whole batch with it
+            String reason = "Batch rejected: " + e.getMostSpecificCause().getMessage();
+            for (Row row : batch) p.fail(new ItemImportError(row.line(), row.item().itemName(), reason));
+        }
+        if (++p.batches % LOG_EVERY_BATCHES == 0) {
+            log.info("Item import: {} rows read, {} upserted, {} failed", p.rows, p.upserted, p.failed);
+        }
+    }
+
+    private static void validate(ItemDto item) {
+        if (item == null) throw new IllegalArgumentException("Row is empty");
+        if (item.itemName() == null || item.itemName().isBlank()) throw new IllegalArgumentException("itemName is required");
+        if (item.itemName().length() > MAX_NAME_LENGTH)
+            throw new IllegalArgumentException("itemName is longer than " + MAX_NAME_LENGTH + " characters");
+        if (item.quantity() == null || item.quantity() < 0) throw new IllegalArgumentException("quantity must be zero or more");
+        if (item.price() == null || item.price().signum() < 0) throw new IllegalArgumentException("price must be zero or more");
+        if (item.volume() == null || item.volume() <= 0) throw new IllegalArgumentException("volume must be positive");
+    }
+
+    // ---- CSV ----
+
+    private static RowParser csvParser(String header) {
+        if (header == null) throw new BusinessRuleExceptions("CSV import is empty");
+        List<String> columns = splitCsv(header.strip());
+        int[] at = new int[CSV_HEADER.length];
+        for (int i = 0; i < CSV_HEADER.length; i++) {
+            at[i] = columns.indexOf(CSV_HEADER[i]);
+            if (at[i] < 0) throw new BusinessRuleExceptions("CSV header must name the columns " + String.join(", ", CSV_HEADER));
+        }
+        return line -> {
+            List<String> f = splitCsv(line);
+            return new ItemDto(null, field(f, at[0]), number(f, at[1], CSV_HEADER[1]),
+                    decimal(f, at[2], CSV_HEADER[2]), number(f, at[3], CSV_HEADER[3]), null);
+        };
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) return null;
+        String s = fields.get(index);
+        return s.isEmpty() ? null : s;
+    }
+
+    private static Long number(List<String> fields, int index, String column) {
+        String s = field(fields, index);
+        try {
+            return s == null ? null : Long.valueOf(s.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: " + s);
+        }
+    }
+
+    private static BigDecimal decimal(List<String> fields, int index, String column) {
+        String s = field(fields, index);
+        try {
+            return s == null ? null : new BigDecimal(s.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + s);
+        }
+    }
+
+    /** Splits one record; fields may be quoted, with {@code ""} standing for a quote inside them. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') cur.append(c);
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; }
+                else quoted = false;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else if (c != '\r') {
+                cur.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(cur.toString());
+        return fields;
+    }
+}
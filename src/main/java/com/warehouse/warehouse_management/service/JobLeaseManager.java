@@ -0,0 +1,130 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JobLeaseConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide lease for scheduled jobs, kept in {@code job_locks}.
+ * <p>
+ * A node runs a job only after it wins the lease row. It extends the lease with a heartbeat
+ * while the job runs and lets it expire when done. All times come from the database clock, so
+ * nodes never compare their own clocks. If a holder dies, its lease expires after
+ * {@code leaseSeconds} and the next node to try takes it over.
+ */
+@Component
+@Slf4j
+public class JobLeaseManager {
+
+    private static final String NOW = "LOCALTIMESTAMP(3)";
+
+    private final JdbcTemplate jdbc;
+    private final JobLeaseConfig config;
+    private final String owner;
+    private final ScheduledExecutorService heartbeats;
+
+    public JobLeaseManager(JdbcTemplate jdbc, JobLeaseConfig config) {
+        this.jdbc = jdbc;
+        this.config = config;
+        this.owner = config.getOwner() != null ? config.getOwner() : defaultOwner();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Runs {@code task} if this node wins the lease for {@code job}; returns false without
+     * running it when another node holds the lease.
+     */
+    public boolean runExclusively(String job, Runnable task) {
+        return runExclusively(job, config.getMinHoldSeconds(), task);
+    }
+
+    /**
+     * As {@link #runExclusively(String, Runnable)}, but the finished lease is held for {@code minHoldSeconds}
+     * after it was taken. Jobs that fire every few seconds pass 0, so the next tick on any node can run.
+     */
+    public boolean runExclusively(String job, long minHoldSeconds, Runnable task) {
+        if (!tryAcquire(job)) {
+            log.debug("Skipping {}: lease held by another node", job);
+            return false;
+        }
+        long period = config.getHeartbeatSeconds();
+        ScheduledFuture<?> beat = heartbeats.scheduleAtFixedRate(() -> heartbeat(job), period, period, TimeUnit.SECONDS);
+        try {
+            task.run();
+            return true;
+        } finally {
+            beat.cancel(false);
+            release(job, minHoldSeconds);
+        }
+    }
+
+    boolean tryAcquire(String job) {
+        int taken = jdbc.update("update job_locks set owner = ?, acquired_at = " + NOW + ", heartbeat_at = " + NOW +
+                        ", locked_until = TIMESTAMPADD(SECOND, ?, " + NOW + ") " +
+                        "where job_name = ? and locked_until <= " + NOW,
+                owner, config.getLeaseSeconds(), job);
+        if (taken == 1) return true;
+        try {
+            jdbc.update("insert into job_locks (job_name, owner, acquired_at, locked_until, heartbeat_at) " +
+                            "values (?, ?, " + NOW + ", TIMESTAMPADD(SECOND, ?, " + NOW + "), " + NOW + ")",
+                    job, owner, config.getLeaseSeconds());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    boolean heartbeat(String job) {
+        try {
+            int kept = jdbc.update("update job_locks set heartbeat_at = " + NOW +
+                            ", locked_until = TIMESTAMPADD(SECOND, ?, " + NOW + ") " +
+                            "where job_name = ? and owner = ?",
+                    config.getLeaseSeconds(), job, owner);
+            if (kept == 0) log.warn("Lease for {} was lost by {}", job, owner);
+            return kept == 1;
+        } catch (RuntimeException e) {
+            // keep the schedule alive; the next beat may get through before the lease runs out
+            log.warn("Heartbeat for {} failed", job, e);
+            return false;
+        }
+    }
+
+    void release(String job, long minHoldSeconds) {
+        jdbc.update("update job_locks set locked_until = GREATEST(" + NOW + ", TIMESTAMPADD(SECOND, ?, acquired_at)) " +
+                        "where job_name = ? and owner = ?",
+                minHoldSeconds, job, owner);
+    }
+
+    private static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -8,24 +8,84 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 
 public class Jwt {
+    static final String TYPE_CLAIM = "typ";
+    static final String FAMILY_CLAIM = "fam";
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
     private final Claims claims;
     private final SecretKey secretKey;
+    private volatile String compact;
+    // read on every request, so taken out of the claims map once
+    private final String id;
+    private final String type;
+    private final long expiresAt;
+
     public Jwt(Claims claims, SecretKey secretKey) {
+        this(claims, secretKey, null);
+    }
+
+    // a parsed token keeps the string it came from, so it is never signed again
+    Jwt(Claims claims, SecretKey secretKey, String compact) {
         this.claims = claims;
         this.secretKey = secretKey;
+        this.compact = compact;
+        this.id = claims.getId();
+        this.type = claims.get(TYPE_CLAIM, String.class);
+        Date expiration = claims.getExpiration();
+        this.expiresAt = expiration == null ? Long.MAX_VALUE : expiration.getTime();
     }
+
     public boolean isExpired(){
-        return claims.getExpiration().before(new Date());
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /** The {@code jti} claim; null on tokens issued before token ids were introduced. */
+    public String getId() {
+        return id;
+    }
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(type);
+    }
+
+    /** Login session a refresh token belongs to; every rotation keeps it. */
+    public String getFamilyId() {
+        return claims.get(FAMILY_CLAIM, String.class);
     }
 
     public Long getUserId(){
         return Long.valueOf(claims.getSubject());
     }
 
+    public String getEmail() {
+        return claims.get("email", String.class);
+    }
+
+    public String getName() {
+        return claims.get("name", String.class);
+    }
+
+    public String getSurname() {
+        return claims.get("surname", String.class);
+    }
+
     public Role getRole(){
-        return Role.valueOf(claims.get("role", String.class));
+        // the role is an enum on a token built here and a string on a parsed one
+        return Role.valueOf(String.valueOf(claims.get("role")));
     }
+
     public String toString(){
-        return Jwts.builder().claims(claims).signWith(secretKey).compact();
+        String s = compact;
+        if (s == null) compact = s = Jwts.builder().claims(claims).signWith(secretKey).compact();
+        return s;
     }
 }
@@ -1,58 +1,47 @@
 package com.warehouse.warehouse_management.service;
 
 import com.warehouse.warehouse_management.config.JwtConfig;
-import com.warehouse.warehouse_management.entity.User;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
+import java.util.UUID;
 
 @AllArgsConstructor
 @Service
 public class JwtService {
     private final JwtConfig jwtConfig;
-    public Jwt generateAccessToken(User user) {
-        return generateToken(user, jwtConfig.getAccessTokenExpiration());
+    private final JwtVerifier verifier;
+
+    public Jwt generateAccessToken(AuthenticatedUser user) {
+        return generateToken(user, jwtConfig.getAccessTokenExpiration(), Jwt.ACCESS, null);
     }
-    public Jwt generateRefreshToken(User user) {
-        return generateToken(user, jwtConfig.getRefreshTokenExpiration());
+
+    /** A refresh token in login session {@code familyId}; see {@link RefreshTokens} for issuing and rotating. */
+    public Jwt generateRefreshToken(AuthenticatedUser user, String familyId) {
+        return generateToken(user, jwtConfig.getRefreshTokenExpiration(), Jwt.REFRESH, familyId);
     }
 
-    private Jwt generateToken(User user, int tokenExpiration) {
+    private Jwt generateToken(AuthenticatedUser user, int tokenExpiration, String type, String familyId) {
 
         var claims = Jwts.claims()
-                .subject(user.getId().toString())
-                .add("email", user.getEmail())
-                .add("name", user.getName())
-                .add("role", user.getRole())
+                .id(UUID.randomUUID().toString())
+                .subject(user.id().toString())
+                .add("email", user.email())
+                .add("name", user.name())
+                .add("surname", user.surname())
+                .add("role", user.role())
+                .add(Jwt.TYPE_CLAIM, type)
+                .add(Jwt.FAMILY_CLAIM, familyId)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis()+ tokenExpiration * 1000))
+                .expiration(new Date(System.currentTimeMillis()+ tokenExpiration * 1000L))
                 .build();
 
         return new Jwt(claims, jwtConfig.getSecretKey());
     }
 
     public Jwt parseToken(String token) {
-        try {
-            var claims = getClaims(token);
-            return new Jwt(claims, jwtConfig.getSecretKey());
-        }
-        catch (JwtException e) {
-            return null;
-        }
+        return verifier.verify(token);
     }
-
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(jwtConfig.getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-
 }
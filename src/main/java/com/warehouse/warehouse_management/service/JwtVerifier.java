@@ -0,0 +1,100 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies compact tokens with one prebuilt parser (immutable, so shared by all request threads) and remembers
+ * the ones that passed. Entries are keyed by the signature segment and hold the whole token, which is compared
+ * on a hit, so a token with a borrowed signature never matches. An entry is dropped once its token expires; when
+ * the cache is full, expired entries are swept and new tokens are not cached until there is room. When the
+ * configured secret changes, the parser is rebuilt for the new key and the remembered tokens are dropped.
+ */
+@Component
+public class JwtVerifier {
+
+    private record Verified(String token, Jwt jwt, long expiresAt, SecretKey key) {}
+
+    private record KeyedParser(SecretKey key, JwtParser parser) {}
+
+    private final JwtConfig config;
+    private final Map<String, Verified> verified = new ConcurrentHashMap<>();
+    private volatile KeyedParser parser;
+    private volatile long lastSweep;
+
+    public JwtVerifier(JwtConfig config) {
+        this.config = config;
+    }
+
+    /** The verified token, or null when it is malformed, wrongly signed or expired. */
+    public Jwt verify(String token) {
+        KeyedParser p = parser();
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        Verified hit = verified.get(signature);
+        if (hit != null && hit.token().equals(token) && hit.key() == p.key()) {
+            if (System.currentTimeMillis() < hit.expiresAt()) return hit.jwt();
+            verified.remove(signature, hit);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = p.parser().parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Jwt jwt = new Jwt(claims, p.key(), token);
+        if (claims.getExpiration() != null && !signature.isEmpty()) {
+            remember(signature, new Verified(token, jwt, claims.getExpiration().getTime(), p.key()));
+        }
+        return jwt;
+    }
+
+    /** Forgets a token, e.g. once it has been revoked. */
+    public void evict(String token) {
+        verified.remove(token.substring(token.lastIndexOf('.') + 1));
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    // built on first use, like the key, so a context without a secret still starts; JwtConfig derives a new key
+    // instance when the secret is set, which is what tells us to rebuild. Entries verified under the old key are
+    // also checked by key on a hit, so one remembered by a request racing the clear is never served.
+    private synchronized KeyedParser rebuild(SecretKey key) {
+        KeyedParser p = parser;
+        if (p != null && p.key() == key) return p;
+        if (p != null) verified.clear();
+        parser = p = new KeyedParser(key, Jwts.parser().verifyWith(key).build());
+        return p;
+    }
+
+    private KeyedParser parser() {
+        SecretKey key = config.getSecretKey();
+        KeyedParser p = parser;
+        return p != null && p.key() == key ? p : rebuild(key);
+    }
+
+    private void remember(String signature, Verified entry) {
+        int max = config.getVerifiedTokenCacheSize();
+        if (verified.size() >= max) {
+            // at most one sweep a second, so a cache full of live tokens does not cost a scan per request
+            long now = System.currentTimeMillis();
+            if (now - lastSweep < 1000) return;
+            lastSweep = now;
+            verified.values().removeIf(v -> v.expiresAt() <= now);
+            if (verified.size() >= max) return;
+        }
+        verified.put(signature, entry);
+    }
+}
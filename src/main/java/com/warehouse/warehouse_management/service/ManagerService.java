@@ -1,14 +1,14 @@
 package com.warehouse.warehouse_management.service;
 
 import com.warehouse.warehouse_management.dto.*;
-import com.warehouse.warehouse_management.entity.OrderStatus;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 public interface ManagerService {
     // Orders
-    List<OrderSummaryResponse> listAllOrders(OrderStatus status);
+    CursorPage<OrderSummaryResponse> listAllOrders(OrderSummaryFilter filter, String cursor, int limit);
     OrderResponse getOrderDetails(Long orderNumber);
     OrderResponse approveOrder(Long orderNumber);
     OrderResponse declineOrder(Long orderNumber, String reason);
@@ -16,8 +16,11 @@ public interface ManagerService {
     // Items
     ItemDto createItem(ItemDto req);
     ItemDto updateItem(Long id, ItemDto req);
+    ItemDto receiveStock(Long id, long quantity);
+    List<InventoryMovementLine> itemMovements(Long id, int limit);
     void deleteIfQtyZero(Long id);
     List<ItemDto> listItems();
+    ItemCatalogStats itemCatalogStats();
 
     // Trucks
     TruckDto createTruck(TruckDto req);
@@ -27,5 +30,6 @@ public interface ManagerService {
 
     // Delivery
     ScheduleDeliveryResponse scheduleDelivery(Long orderNumber, LocalDate date);
+    BatchScheduleResponse scheduleBatch(Set<Long> orderNumbers, LocalDate from, LocalDate to);
     AvailableDaysResponse getAvailableDaysForDelivery(Long orderNumber, int days);
 }
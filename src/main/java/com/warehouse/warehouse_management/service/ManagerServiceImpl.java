@@ -1,5 +1,6 @@
 package com.warehouse.warehouse_management.service;
 
+import com.warehouse.warehouse_management.config.DeliveryConfig;
 import com.warehouse.warehouse_management.dto.*;
 import com.warehouse.warehouse_management.entity.*;
 import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
@@ -7,21 +8,19 @@ import com.warehouse.warehouse_management.exceptions.ItemNotDeletableException;
 import com.warehouse.warehouse_management.exceptions.ItemNotFoundException;
 import com.warehouse.warehouse_management.mapper.ItemMapper;
 import com.warehouse.warehouse_management.mapper.OrderMapper;
-import com.warehouse.warehouse_management.mapper.OrderSummaryMapper;
 import com.warehouse.warehouse_management.mapper.TruckMapper;
 import com.warehouse.warehouse_management.repository.DeliveryRepository;
 import com.warehouse.warehouse_management.repository.ItemRepository;
 import com.warehouse.warehouse_management.repository.OrderRepository;
 import com.warehouse.warehouse_management.repository.TruckRepository;
+import com.warehouse.warehouse_management.repository.TruckReservationRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,19 +32,36 @@ public class ManagerServiceImpl implements ManagerService {
     private final ItemRepository items;
     private final TruckRepository trucks;
     private final DeliveryRepository deliveries;
+    private final TruckReservationRepository reservations;
+    private final TruckSelector truckSelector;
+    private final TruckCalendar calendar;
+    private final DeliveryConfig deliveryConfig;
+    private final UrgentOrderQueue urgentQueue;
+    private final DeliveryPreemption preemption;
+    private final DeliveryCompletionQueue completions;
+    private final PricingEngine pricing;
+    private final StockReservations stock;
+    private final AvailableToPromise atp;
+    private final ItemCatalog catalog;
+    private final InventoryLedger ledger;
 
     private final OrderMapper orderMapper;
-    private final OrderSummaryMapper orderSummaryMapper;
     private final ItemMapper itemMapper;
     private final TruckMapper truckMapper;
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
-    public List<OrderSummaryResponse> listAllOrders(OrderStatus status) {
-        List<Order> list = (status == null)
-                ? orders.findAllByOrderBySubmittedDateDesc()
-                : orders.findAllByStatusOrderBySubmittedDateDesc(status);
-        return list.stream().map(orderSummaryMapper::toSummary).toList();
+    public CursorPage<OrderSummaryResponse> listAllOrders(OrderSummaryFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        OrderCursor after = OrderCursor.decode(cursor);
+        List<OrderSummaryResponse> rows = orders.findSummaries(filter, after.date(), after.orderNumber(), size + 1);
+        if (rows.size() <= size) return new CursorPage<>(rows, null);
+
+        List<OrderSummaryResponse> page = rows.subList(0, size);
+        OrderSummaryResponse last = page.get(size - 1);
+        return new CursorPage<>(page, new OrderCursor(last.submittedDate(), last.orderNumber()).encode());
     }
 
     @Override
@@ -62,8 +78,10 @@ public class ManagerServiceImpl implements ManagerService {
                 .orElseThrow(() -> new BusinessRuleExceptions("Order not found"));
         if (o.getStatus() != OrderStatus.AWAITING_APPROVAL)
             throw new BusinessRuleExceptions("Only AWAITING_APPROVAL orders can be approved");
+        stock.reserve(o);
         o.setStatus(OrderStatus.APPROVED);
         o.setDeclineReason(null);
+        urgentQueue.approved(o);
         return orderMapper.toDto(orders.save(o));
     }
 
@@ -75,6 +93,7 @@ public class ManagerServiceImpl implements ManagerService {
             throw new BusinessRuleExceptions("Only AWAITING_APPROVAL orders can be declined");
         o.setStatus(OrderStatus.DECLINED);
         o.setDeclineReason(reason);
+        urgentQueue.removed(orderNumber);
         return orderMapper.toDto(orders.save(o));
     }
 
@@ -82,21 +101,58 @@ public class ManagerServiceImpl implements ManagerService {
     public ItemDto createItem(ItemDto dto) {
         var entity = itemMapper.toEntity(dto);
         entity.setId(null);
-        return itemMapper.toDto(items.save(entity));
+        Item saved = items.save(entity);
+        if (saved.getQuantity() > 0)
+            ledger.recordApplied(MovementKind.RECEIPT, null, new long[]{saved.getId()}, new long[]{saved.getQuantity()}, new long[1]);
+        atp.itemSaved(saved);
+        catalog.invalidate(List.of(saved.getId()));
+        return itemMapper.toDto(saved).withAvailable(saved.getQuantity() - saved.getReserved());
     }
 
     @Override
     public ItemDto updateItem(Long id, ItemDto dto) {
-        var entity = items.findById(id)
+        // the new quantity is absolute, so pending movements go into the snapshot first. Folding locks movements
+        // before the item, like compaction; the row lock then keeps compaction and reservations out until commit
+        ledger.fold(List.of(id));
+        var entity = items.findByIdForUpdate(id)
                 .orElseThrow(() -> new BusinessRuleExceptions("Item not found"));
+        long before = entity.getQuantity();
         itemMapper.update(entity, dto);
-        return itemMapper.toDto(items.save(entity));
+        if (entity.getQuantity() < entity.getReserved())
+            throw new BusinessRuleExceptions("Quantity cannot drop below the " + entity.getReserved()
+                    + " units reserved by approved orders");
+        Item saved = items.save(entity);
+        if (saved.getQuantity() != before)
+            ledger.recordApplied(MovementKind.ADJUSTMENT, null, new long[]{id}, new long[]{saved.getQuantity() - before}, new long[1]);
+        atp.itemSaved(saved);
+        catalog.invalidate(List.of(saved.getId()));
+        return itemMapper.toDto(saved).withAvailable(saved.getQuantity() - saved.getReserved());
+    }
+
+    @Override
+    public ItemDto receiveStock(Long id, long quantity) {
+        ItemDto item = catalog.find(id).orElseThrow(() -> new ItemNotFoundException(id));
+        ledger.record(MovementKind.RECEIPT, null, new long[]{id}, new long[]{quantity}, new long[1]);
+        atp.adjust(new long[]{id}, new long[]{quantity}, 1);
+        // both in-memory views take the receipt after commit
+        return item.withQuantity(item.quantity() + quantity).withAvailable(atp.available(id) + quantity);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<InventoryMovementLine> itemMovements(Long id, int limit) {
+        return ledger.history(id, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     @Override
     public void deleteIfQtyZero(Long id) {
+        ledger.fold(List.of(id));
         int deleted = items.deleteIfQuantityZero(id);
-        if (deleted == 1) return;
+        if (deleted == 1) {
+            atp.itemRemoved(id);
+            catalog.invalidate(List.of(id));
+            return;
+        }
 
         if (!items.existsById(id)) {
             throw new ItemNotFoundException(id);
@@ -107,14 +163,23 @@ public class ManagerServiceImpl implements ManagerService {
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
     public List<ItemDto> listItems() {
-        return items.findAll().stream().map(itemMapper::toDto).toList();
+        return catalog.list().stream()
+                .map(dto -> dto.withAvailable(atp.available(dto.itemId())))
+                .toList();
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ItemCatalogStats itemCatalogStats() {
+        return catalog.stats();
     }
 
     @Override
     public TruckDto createTruck(TruckDto req) {
         if (trucks.existsById(req.vin())) throw new BusinessRuleExceptions("Truck VIN already exists");
-        Truck t = truckMapper.toEntity(req);
-        return truckMapper.toDto(trucks.save(t));
+        Truck t = trucks.save(truckMapper.toEntity(req));
+        calendar.truckSaved(t);
+        return truckMapper.toDto(t);
     }
 
     @Override
@@ -122,13 +187,16 @@ public class ManagerServiceImpl implements ManagerService {
         Truck t = trucks.findById(vin).orElseThrow(() -> new BusinessRuleExceptions("Truck not found"));
         truckMapper.update(t, req);
         t.setVin(vin);
-        return truckMapper.toDto(trucks.save(t));
+        t = trucks.save(t);
+        calendar.truckSaved(t);
+        return truckMapper.toDto(t);
     }
 
     @Override
     public void deleteTruck(String vin) {
         if (!trucks.existsById(vin)) throw new BusinessRuleExceptions("Truck not found");
         trucks.deleteById(vin);
+        calendar.truckRemoved(vin);
     }
 
     @Override
@@ -148,40 +216,37 @@ public class ManagerServiceImpl implements ManagerService {
         if (o.getDelivery() != null)
             throw new BusinessRuleExceptions("Order already has a scheduled delivery");
 
-        List<Long> urgentOrders = orders
-                .findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED)
-                .stream()
-                .filter(id -> !id.equals(orderNumber))
-                .toList();
-        if (!urgentOrders.isEmpty() && o.getPriority() != Priority.URGENT) {
-            int limit = 10;
-            String shown = urgentOrders.stream().limit(limit).map(String::valueOf)
-                    .collect(Collectors.joining(", "));
-            String more  = urgentOrders.size() > limit ? " (+" + (urgentOrders.size() - limit) + " more)" : "";
-            throw new BusinessRuleExceptions(
-                    "Urgent orders must be handled first. Pending URGENT+APPROVED order IDs: [" + shown + "]" + more
-            );
-
+        int urgentWaiting = urgentQueue.countOtherThan(orderNumber);
+        if (urgentWaiting > 0 && o.getPriority() != Priority.URGENT) {
+            throw new BusinessRuleExceptions(urgentFirstMessage(urgentQueue.firstOtherThan(orderNumber, 10), urgentWaiting));
         }
 
         validateBusinessDate(date);
 
-        if (o.getPriority() == Priority.URGENT) {
-            rescheduleLowerPriorityDeliveries(date, o.getPriority());
-        }
+        long capacity = 0L;
+        long orderVolume = calcOrderVolume(o);
 
         List<Truck> free = trucks.findFreeTrucksOn(date, LocalDate.now());
+        TruckSelection selection = selectTrucksByCapacity(free, orderVolume);
+        if (selection.isEmpty() && o.getPriority() == Priority.URGENT) {
+            free = preemption.makeRoom(date, free, pool -> !selectTrucksByCapacity(pool, orderVolume).isEmpty());
+            selection = selectTrucksByCapacity(free, orderVolume);
+        }
         if (free.isEmpty())
             throw new BusinessRuleExceptions("No trucks are available for " + date);
-
-        long capacity = 0L;
-        long orderVolume = calcOrderVolume(o);
-
-        List<Truck> selected = selectTrucksByCapacity(free, orderVolume);
-        if (selected.isEmpty()) {
+        if (selection.isEmpty()) {
             long total = free.stream().mapToLong(t -> t.getContainerVolume() == null ? 0L : t.getContainerVolume()).sum();
             throw new BusinessRuleExceptions("No combination of trucks can satisfy the volume. Total capacity available: " + total);
         }
+        String stockProblem = checkStock(o);
+        if (stockProblem != null) throw new BusinessRuleExceptions(stockProblem);
+
+        Delivery delivery = newDelivery(o, date);
+        Claim claim = claimTrucks(delivery, new ArrayList<>(free), orderVolume, selection);
+        if (claim == null)
+            throw new BusinessRuleExceptions("Trucks for " + date + " were taken by concurrent bookings, please retry");
+        List<Truck> selected = claim.trucks();
+        selection = claim.selection();
 
         List<String> truckPlates = selected.stream()
                 .map(Truck::getLicensePlate)
@@ -192,50 +257,101 @@ public class ManagerServiceImpl implements ManagerService {
         if (capacity < orderVolume)
             throw new BusinessRuleExceptions("Selected trucks capacity (" + capacity + ") is less than order volume (" + orderVolume + ")");
 
-        for (OrderItem oi : o.getItems()) {
-            Item it = oi.getItem();
-            if (it == null)
-                throw new BusinessRuleExceptions("Order contains an item that no longer exists (itemId=" +
-                        (oi.getId() != null ? oi.getId().getItemId() : "unknown") + ")");
-            Long need = oi.getRequestedQty();
-            if (need == null || need <= 0)
-                throw new BusinessRuleExceptions("Order has a line with non-positive quantity (itemId=" + it.getId() + ")");
-            long have = it.getQuantity() == null ? 0L : it.getQuantity();
-            if (have < need)
-                throw new BusinessRuleExceptions("Insufficient stock for item " + it.getId() + " (" + it.getName() + ")");
-        }
+        String shortage = stock.consume(o);
+        if (shortage != null) throw new BusinessRuleExceptions(shortage);
+        bookDelivery(o, delivery, selected);
 
-        for (OrderItem oi : o.getItems()) {
-            Item it = oi.getItem();
-            long have = it.getQuantity() == null ? 0L : it.getQuantity();
-            it.setQuantity(have - oi.getRequestedQty());
-            items.save(it);
-        }
+        return new ScheduleDeliveryResponse(orderMapper.toDto(orders.findWithAllByOrderNumber(orderNumber)), truckPlates,
+                selection.optimal(), selection.elapsedMicros());
+    }
 
-        Delivery d = new Delivery();
-        d.setOrder(o);
-        d.setScheduledDate(date);
-        selected.forEach(d::addTruck);
-        deliveries.saveAndFlush(d);
+    @Override
+    public BatchScheduleResponse scheduleBatch(Set<Long> orderNumbers, LocalDate from, LocalDate to) {
+        validateBusinessDate(from);
+        if (to.isBefore(from))
+            throw new BusinessRuleExceptions("Window end must not be before its start");
+        if (to.isAfter(from.plusDays(deliveryConfig.getMaxLookaheadDays())))
+            throw new BusinessRuleExceptions("Window cannot exceed " + deliveryConfig.getMaxLookaheadDays() + " days");
+
+        Map<Long, Order> loaded = new HashMap<>();
+        orders.findAllByOrderNumberIn(orderNumbers).forEach(o -> loaded.put(o.getOrderNumber(), o));
+
+        // URGENT first, then oldest submission, so the planner packs in the order managers would
+        List<Order> plan = loaded.values().stream()
+                .sorted(Comparator.comparing((Order o) -> o.getPriority() != Priority.URGENT)
+                        .thenComparing(Order::getSubmittedDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Order::getOrderNumber))
+                .toList();
 
-        selected.forEach(t -> t.setActive(false));
-        trucks.saveAll(selected);
+        SortedSet<Long> pendingUrgent = urgentQueue.snapshot();
+        pendingUrgent.removeIf(loaded::containsKey);
+
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, List<Truck>> pools = new HashMap<>();
+        Map<Long, BatchScheduleOutcome> outcomes = new HashMap<>();
+
+        for (Order o : plan) {
+            Long id = o.getOrderNumber();
+            String problem = null;
+            if (o.getStatus() != OrderStatus.APPROVED) problem = "Only APPROVED orders can be scheduled";
+            else if (o.getDelivery() != null) problem = "Order already has a scheduled delivery";
+            else if (o.getPriority() != Priority.URGENT && !pendingUrgent.isEmpty())
+                problem = urgentFirstMessage(pendingUrgent.stream().limit(10).toList(), pendingUrgent.size());
+            else problem = checkStock(o);
+
+            if (problem != null) {
+                if (o.getPriority() == Priority.URGENT && o.getStatus() == OrderStatus.APPROVED) pendingUrgent.add(id);
+                outcomes.put(id, BatchScheduleOutcome.failed(id, problem));
+                continue;
+            }
 
-        if (isWeekend(date)){
-            o.setTotal(o.getTotal().multiply(java.math.BigDecimal.valueOf(1.05)));
+            long volume = calcOrderVolume(o);
+            BatchScheduleOutcome outcome = null;
+            String shortage = null;
+            Delivery delivery = null;
+            for (LocalDate d = from; !d.isAfter(to) && outcome == null && shortage == null; d = d.plusDays(1)) {
+                if (isWeekend(d)) continue;
+                List<Truck> pool = pools.computeIfAbsent(d, day -> new ArrayList<>(trucks.findFreeTrucksOn(day, today)));
+                TruckSelection selection = selectTrucksByCapacity(pool, volume);
+                if (selection.isEmpty()) continue;
+
+                if (delivery == null) delivery = newDelivery(o, d);
+                else delivery.setScheduledDate(d);
+                Claim claim = claimTrucks(delivery, pool, volume, selection);
+                if (claim == null) continue;
+
+                shortage = stock.consume(o);
+                if (shortage != null) {
+                    // stock went short since the pre-check; hand the trucks back to the rest of the batch
+                    reservations.release(delivery.getId(), d);
+                    pool.addAll(claim.trucks());
+                    continue;
+                }
+                bookDelivery(o, delivery, claim.trucks());
+                outcome = BatchScheduleOutcome.scheduled(id, d, claim.trucks().stream().map(Truck::getLicensePlate).toList());
+            }
+
+            if (outcome == null) {
+                if (delivery != null) deliveries.delete(delivery);
+                if (o.getPriority() == Priority.URGENT) pendingUrgent.add(id);
+                outcome = BatchScheduleOutcome.failed(id, shortage != null ? shortage
+                        : "No truck capacity for volume " + volume + " between " + from + " and " + to);
+            }
+            outcomes.put(id, outcome);
         }
-        o.setDelivery(d);
-        o.setStatus(OrderStatus.UNDER_DELIVERY);
-        orders.save(o);
 
-        return new ScheduleDeliveryResponse(orderMapper.toDto(orders.findWithAllByOrderNumber(orderNumber)), truckPlates);
+        List<BatchScheduleOutcome> report = new ArrayList<>(orderNumbers.size());
+        for (Long id : orderNumbers) {
+            report.add(outcomes.getOrDefault(id, BatchScheduleOutcome.failed(id, "Order not found")));
+        }
+        return BatchScheduleResponse.of(report);
     }
 
     @Override
     @Transactional(Transactional.TxType.SUPPORTS)
     public AvailableDaysResponse getAvailableDaysForDelivery(Long orderNumber, int days) {
         if (days < 1) days = 1;
-        if (days > 30) days = 30;
+        if (days > deliveryConfig.getMaxLookaheadDays()) days = deliveryConfig.getMaxLookaheadDays();
 
         Order o = orders.findById(orderNumber)
                 .orElseThrow(() -> new BusinessRuleExceptions("Order not found"));
@@ -245,189 +361,129 @@ public class ManagerServiceImpl implements ManagerService {
 
         long orderVolume = calcOrderVolume(o);
 
-        List<Truck> active = trucks.findAllByActiveTrue();
-        if (active.isEmpty()) {
+        if (!calendar.hasActiveTrucks() || calendar.activeCapacity() < orderVolume) {
             return new AvailableDaysResponse(orderNumber, days, java.util.Collections.emptyList());
         }
 
-        long maxDailyCapacity = active.stream().mapToLong(Truck::getContainerVolume).sum();
-        if (maxDailyCapacity < orderVolume) {
-            return new AvailableDaysResponse(orderNumber, days, java.util.Collections.emptyList());
-        }
-
-        List<LocalDate> available = new ArrayList<>();
-        LocalDate start = LocalDate.now().plusDays(1);
-
-        for (int i = 0; i < days; i++) {
-            LocalDate d = start.plusDays(i);
-            if (isWeekend(d)) continue;
-
-            var deliveriesThatDay = deliveries.findByScheduledDate(d);
-
-            if (o.getPriority() == Priority.URGENT) {
-                var urgentDeliveries = deliveriesThatDay.stream()
-                        .filter(del -> del.getOrder().getPriority() == Priority.URGENT)
-                        .toList();
-                
-                var bookedUrgentVins = urgentDeliveries.stream()
-                        .flatMap(del -> del.getTrucks().stream())
-                        .map(Truck::getVin)
-                        .collect(java.util.stream.Collectors.toSet());
-
-                long freeCapacity = active.stream()
-                        .filter(t -> !bookedUrgentVins.contains(t.getVin()))
-                        .mapToLong(Truck::getContainerVolume)
-                        .sum();
-
-                if (freeCapacity >= orderVolume) {
-                    available.add(d);
-                }
-            } else {
-                var bookedVins = deliveriesThatDay.stream()
-                        .flatMap(del -> del.getTrucks().stream())
-                        .map(Truck::getVin)
-                        .collect(java.util.stream.Collectors.toSet());
-
-                long freeCapacity = active.stream()
-                        .filter(t -> !bookedVins.contains(t.getVin()))
-                        .mapToLong(Truck::getContainerVolume)
-                        .sum();
-
-                if (freeCapacity >= orderVolume) {
-                    available.add(d);
-                }
-            }
-        }
+        List<LocalDate> available = calendar.availableDays(LocalDate.now().plusDays(1), days, orderVolume,
+                o.getPriority() == Priority.URGENT);
 
         return new AvailableDaysResponse(orderNumber, days, available);
     }
 
-    private void validateBusinessDate(LocalDate date) {
-        if (date.isBefore(LocalDate.now()))
-            throw new BusinessRuleExceptions("Date must be today or later");
+    private String urgentFirstMessage(List<Long> shownIds, int total) {
+        String shown = shownIds.stream().map(String::valueOf)
+                .collect(Collectors.joining(", "));
+        String more  = total > shownIds.size() ? " (+" + (total - shownIds.size()) + " more)" : "";
+        return "Urgent orders must be handled first. Pending URGENT+APPROVED order IDs: [" + shown + "]" + more;
     }
 
-    private boolean isWeekend(LocalDate d) {
-        DayOfWeek w = d.getDayOfWeek();
-        return w == DayOfWeek.SATURDAY || w == DayOfWeek.SUNDAY;
-    }
-    private long calcOrderVolume(Order o) {
-        long total = 0L;
+    // cheap pre-check on the loaded quantities; StockReservations.consume is what actually guards the stock
+    private String checkStock(Order o) {
+        List<Item> shortItems = new ArrayList<>();
         for (OrderItem oi : o.getItems()) {
-            Long v = oi.getVolume();
-            if (v == null) {
-                Long pkg = (oi.getItem() != null) ? oi.getItem().getPackageVolume() : null;
-                Long qty = oi.getRequestedQty();
-                if (pkg == null || qty == null)
-                    throw new BusinessRuleExceptions("Cannot compute volume for item line; missing packageVolume/quantity");
-                v = pkg.longValue() * qty.longValue();
-                oi.setVolume(v);
-            }
-            total += v;
+            Item it = oi.getItem();
+            if (it == null)
+                return "Order contains an item that no longer exists (itemId=" +
+                        (oi.getId() != null ? oi.getId().getItemId() : "unknown") + ")";
+            Long need = oi.getRequestedQty();
+            if (need == null || need <= 0)
+                return "Order has a line with non-positive quantity (itemId=" + it.getId() + ")";
+            long have = it.getQuantity() == null ? 0L : it.getQuantity();
+            if (have < need) shortItems.add(it);
         }
-        return total;
+        return shortItems.isEmpty() ? null : StockReservations.shortageMessage(shortItems);
     }
 
-    private List<Truck> selectTrucksByCapacity(List<Truck> free, long orderVolume) {
-
-        List<Truck> trucks = free.stream()
-                .filter(t -> t.getContainerVolume() != null && t.getContainerVolume() > 0)
-                .sorted(Comparator.comparingLong(Truck::getContainerVolume).reversed())
-                .toList();
-
-        if (trucks.isEmpty()) return List.of();
-
-        if (trucks.size() > 25) return greedyBestFit(trucks, orderVolume);
-
-        List<Truck> best = new ArrayList<>();
-        long[] bestSum = {Long.MAX_VALUE};
-        int[] bestCount = {Integer.MAX_VALUE};
-
-        long totalRemaining = trucks.stream().mapToLong(Truck::getContainerVolume).sum();
-        dfsSelect(0, 0L, 0, new ArrayList<>(), trucks, orderVolume, totalRemaining, best, bestSum, bestCount);
-        return best;
+    // saved up front so reservation rows have a delivery id to point at
+    private Delivery newDelivery(Order o, LocalDate date) {
+        Delivery d = new Delivery();
+        d.setOrder(o);
+        d.setScheduledDate(date);
+        deliveries.save(d);
+        return d;
     }
 
-    private void dfsSelect(int idx, long sum, int cnt, List<Truck> pick,
-                           List<Truck> trucks, long target, long rem,
-                           List<Truck> best, long[] bestSum, int[] bestCount) {
-
-        if (sum >= target) {
-            if (sum < bestSum[0] || (sum == bestSum[0] && cnt < bestCount[0])) {
-                bestSum[0] = sum;
-                bestCount[0] = cnt;
-                best.clear();
-                best.addAll(pick);
+    private record Claim(List<Truck> trucks, TruckSelection selection) {}
+
+    /**
+     * Claims the selected trucks for {@code d} by inserting reservation rows. Trucks whose row
+     * already belongs to another delivery are dropped from {@code pool} and the selection is
+     * retried; claimed trucks are removed from {@code pool}. Returns null when the pool can no
+     * longer cover the volume or the attempts run out.
+     */
+    private Claim claimTrucks(Delivery d, List<Truck> pool, long volume, TruckSelection selection) {
+        LocalDate date = d.getScheduledDate();
+        for (int attempt = 1; ; attempt++) {
+            List<Truck> selected = pick(pool, selection);
+            List<String> vins = selected.stream().map(Truck::getVin).toList();
+            if (reservations.claim(d.getId(), date, vins) == vins.size()) {
+                pool.removeAll(selected);
+                return new Claim(selected, selection);
             }
-            return;
-        }
-
-        if (sum + rem < target) return;
 
-        if (bestSum[0] != Long.MAX_VALUE && sum >= bestSum[0]) return;
+            Set<String> taken = new HashSet<>(reservations.findTakenByOthers(date, vins, d.getId()));
+            reservations.release(d.getId(), date);
+            pool.removeIf(t -> taken.contains(t.getVin()));
+            if (attempt >= deliveryConfig.getClaimAttempts()) return null;
 
-        if (idx == trucks.size()) return;
-
-        Truck t = trucks.get(idx);
-        long v = t.getContainerVolume() == null ? 0L : t.getContainerVolume();
-
-        pick.add(t);
-        dfsSelect(idx + 1, sum + v, cnt + 1, pick, trucks, target, rem - v, best, bestSum, bestCount);
-        pick.remove(pick.size() - 1);
-
-        dfsSelect(idx + 1, sum, cnt, pick, trucks, target, rem - v, best, bestSum, bestCount);
+            selection = selectTrucksByCapacity(pool, volume);
+            if (selection.isEmpty()) return null;
+        }
     }
 
-    private List<Truck> greedyBestFit(List<Truck> trucks, long orderVolume) {
-        long remaining = orderVolume;
-        List<Truck> chosen = new ArrayList<>();
-
-        List<Truck> pool = new ArrayList<>(trucks);
-        pool.sort(Comparator.comparingLong(Truck::getContainerVolume).reversed());
-
-        while (remaining > 0 && !pool.isEmpty()) {
-            int pickIdx = -1;
-            long pickVol = -1;
-
-            for (int i = 0; i < pool.size(); i++) {
-                long v = pool.get(i).getContainerVolume();
-                if (v <= remaining) { pickIdx = i; pickVol = v; break; }
-            }
+    private void bookDelivery(Order o, Delivery d, List<Truck> selected) {
+        LocalDate date = d.getScheduledDate();
+        selected.forEach(d::addTruck);
+        deliveries.save(d);
 
-            if (pickIdx == -1) {
-                pickIdx = pool.size() - 1;
-                pickVol = pool.get(pickIdx).getContainerVolume();
-            }
+        selected.forEach(t -> t.setActive(false));
+        trucks.saveAll(selected);
+        calendar.book(date, selected, o.getPriority());
+        calendar.setActive(selected.stream().map(Truck::getVin).toList(), false);
 
-            Truck t = pool.remove(pickIdx);
-            chosen.add(t);
-            remaining -= pickVol;
+        if (isWeekend(date)){
+            o.setTotal(pricing.withWeekendSurcharge(o.getTotal()));
         }
-
-        long sum = chosen.stream().mapToLong(Truck::getContainerVolume).sum();
-        return (sum >= orderVolume) ? chosen : List.of();
+        o.setDelivery(d);
+        o.setStatus(OrderStatus.UNDER_DELIVERY);
+        orders.save(o);
+        urgentQueue.removed(o.getOrderNumber());
+        completions.schedule(d);
     }
 
-    private void rescheduleLowerPriorityDeliveries(LocalDate date, Priority newOrderPriority) {
-        List<Delivery> lowerPriorityDeliveries = deliveries.lockAllByDateAndPriority(date, Priority.NORMAL);
-
-        if (newOrderPriority == Priority.URGENT) {
-            for (Delivery delivery : lowerPriorityDeliveries) {
-                Order order = delivery.getOrder();
+    private void validateBusinessDate(LocalDate date) {
+        if (date.isBefore(LocalDate.now()))
+            throw new BusinessRuleExceptions("Date must be today or later");
+    }
 
-                LocalDate nextDate = date.plusDays(1);
+    private boolean isWeekend(LocalDate d) {
+        DayOfWeek w = d.getDayOfWeek();
+        return w == DayOfWeek.SATURDAY || w == DayOfWeek.SUNDAY;
+    }
+    private long calcOrderVolume(Order o) {
+        return o.getTotalVolume() == null ? 0L : o.getTotalVolume();
+    }
 
-                delivery.setScheduledDate(nextDate);
-                deliveries.save(delivery);
-            }
+    private TruckSelection selectTrucksByCapacity(List<Truck> free, long orderVolume) {
+        long[] capacities = new long[free.size()];
+        for (int i = 0; i < capacities.length; i++) {
+            Long v = free.get(i).getContainerVolume();
+            capacities[i] = v == null ? 0L : v;
         }
+        return truckSelector.select(capacities, orderVolume);
+    }
+
+    private List<Truck> pick(List<Truck> free, TruckSelection selection) {
+        List<Truck> selected = new ArrayList<>(selection.indices().length);
+        for (int idx : selection.indices()) selected.add(free.get(idx));
+        return selected;
     }
 
     private boolean canScheduleOnDate(Order order, LocalDate date) {
         List<Truck> availableTrucks = trucks.findFreeTrucksOn(date, LocalDate.now());
         long orderVolume = calcOrderVolume(order);
-        List<Truck> selected = selectTrucksByCapacity(availableTrucks, orderVolume);
-        return !selected.isEmpty();
+        return !selectTrucksByCapacity(availableTrucks, orderVolume).isEmpty();
     }
 
 }
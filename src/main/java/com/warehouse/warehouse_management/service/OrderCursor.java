@@ -0,0 +1,30 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/** Keyset position in an order list sorted by (a timestamp, orderNumber) descending; opaque to clients. */
+record OrderCursor(LocalDateTime date, long orderNumber) {
+
+    // first page: after every real key
+    static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    String encode() {
+        String raw = date + "|" + orderNumber;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessRuleExceptions("Invalid cursor");
+        }
+    }
+}
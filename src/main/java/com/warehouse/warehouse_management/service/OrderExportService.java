@@ -0,0 +1,94 @@
+package com.warehouse.warehouse_management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.warehouse_management.dto.DataFormat;
+import com.warehouse.warehouse_management.dto.OrderExportLine;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders and their lines straight from a forward-only projection stream. Rows are
+ * DTOs rather than entities, so nothing accumulates in the persistence context and memory
+ * stays flat however many lines are exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    static final String[] CSV_HEADER = {"orderNumber", "clientName", "status", "priority", "submittedDate", "total",
+            "itemId", "itemName", "requestedQty", "price", "volume"};
+    private static final int FLUSH_EVERY = 1000;
+
+    private final OrderRepository orders;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    /** Streams every matching line to {@code out}; the date range is inclusive. Returns the number of rows written. */
+    public long export(DataFormat format, OrderStatus status, LocalDate from, LocalDate to, OutputStream out) {
+        LocalDateTime fromTs = from == null ? null : from.atStartOfDay();
+        LocalDateTime toTs = to == null ? null : to.plusDays(1).atStartOfDay();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        Long written = tx.execute(s -> {
+            try (Stream<OrderExportLine> rows = orders.streamExport(status, fromTs, toTs)) {
+                return format == DataFormat.CSV ? writeCsv(rows.iterator(), out) : writeNdjson(rows.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0L : written;
+    }
+
+    private long writeNdjson(Iterator<OrderExportLine> rows, OutputStream out) throws IOException {
+        long n = 0;
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null); // lines are separated by the '\n' below, not the default space
+        while (rows.hasNext()) {
+            gen.writeObject(rows.next());
+            gen.writeRaw('\n');
+            if (++n % FLUSH_EVERY == 0) gen.flush();
+        }
+        gen.close();
+        return n;
+    }
+
+    private long writeCsv(Iterator<OrderExportLine> rows, OutputStream out) throws IOException {
+        long n = 0;
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(String.join(",", CSV_HEADER));
+        w.write('\n');
+        while (rows.hasNext()) {
+            OrderExportLine r = rows.next();
+            w.write(csv(r.orderNumber()) + ',' + csv(r.clientName()) + ',' + csv(r.status()) + ','
+                    + csv(r.priority()) + ',' + csv(r.submittedDate()) + ',' + csv(r.total()) + ','
+                    + csv(r.itemId()) + ',' + csv(r.itemName()) + ',' + csv(r.requestedQty()) + ','
+                    + csv(r.price()) + ',' + csv(r.volume()));
+            w.write('\n');
+            if (++n % FLUSH_EVERY == 0) w.flush();
+        }
+        w.flush();
+        return n;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) return "";
+        String s = value instanceof BigDecimal b ? b.toPlainString() : value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,5 +1,7 @@
 package com.warehouse.warehouse_management.service;
 
+import com.warehouse.warehouse_management.dto.CursorPage;
+import com.warehouse.warehouse_management.dto.LineItemOperation;
 import com.warehouse.warehouse_management.entity.Order;
 import com.warehouse.warehouse_management.entity.OrderStatus;
 import com.warehouse.warehouse_management.entity.Priority;
@@ -12,7 +14,8 @@ public interface OrderService {
     Order addItemToOrder(Long clientId, Long orderId, Long itemId, Long quantity);
     Order updateItemQuantity(Long clientId, Long orderId, Long itemId, Long quantity);
     Order removeItemFromOrder(Long clientId, Long orderId, Long itemId);
+    Order applyLineItems(Long clientId, Long orderId, List<LineItemOperation> operations);
     Order submitOrder(Long clientId, Long orderId);
     Order cancelOrder(Long clientId, Long orderId);
-    List<Order> listMyOrders(Long clientId, OrderStatus status);
+    CursorPage<Order> listMyOrders(Long clientId, OrderStatus status, String cursor, int limit);
 }
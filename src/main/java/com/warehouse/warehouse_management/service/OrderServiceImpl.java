@@ -1,5 +1,8 @@
 package com.warehouse.warehouse_management.service;
 
+import com.warehouse.warehouse_management.dto.CursorPage;
+import com.warehouse.warehouse_management.dto.ItemDto;
+import com.warehouse.warehouse_management.dto.LineItemOperation;
 import com.warehouse.warehouse_management.entity.*;
 import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
 import com.warehouse.warehouse_management.repository.ItemRepository;
@@ -8,11 +11,12 @@ import com.warehouse.warehouse_management.repository.OrderRepository;
 import com.warehouse.warehouse_management.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 
 @Service
 @Transactional
@@ -22,6 +26,12 @@ public class OrderServiceImpl implements OrderService {
     private final ItemRepository items;
     private final OrderItemRepository orderItems;
     private final UserRepository users;
+    private final UrgentOrderQueue urgentQueue;
+    private final PricingEngine pricing;
+    private final StockReservations stock;
+    private final ItemCatalog catalog;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     @Override
     public Order createOrder(Long clientId , Priority priority) {
@@ -30,7 +40,8 @@ public class OrderServiceImpl implements OrderService {
         order.setClient(client);
         order.setStatus(OrderStatus.CREATED);
         order.setPriority(priority);
-        order.setSubmittedDate(LocalDateTime.now());
+        order.setCreatedAt(LocalDateTime.now());
+        order.setSubmittedDate(order.getCreatedAt());
         return orders.save(order);
     }
     @Override
@@ -38,43 +49,16 @@ public class OrderServiceImpl implements OrderService {
         Order order = findOwnedOrder(clientId, orderId);
         ensureEditable(order);
 
-        Item item = items.findById(itemId)
+        ItemDto item = catalog.find(itemId)
                 .orElseThrow(() -> new BusinessRuleExceptions("Item not found"));
 
-        OrderItem oi = orderItems.findByOrderOrderNumberAndItemId(order.getOrderNumber(), item.getId())
+        OrderItem oi = orderItems.findByOrderOrderNumberAndItemId(order.getOrderNumber(), itemId)
                 .orElse(null);
 
         if (oi == null) {
-            oi = new OrderItem();
-            oi.setOrder(order);
-            oi.setItem(item);
-            oi.setRequestedQty(quantity);
-            if(quantity >= 100){
-                oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(0.9)), quantity));
-            }
-            else {
-                if(item.getQuantity()<20){
-                    oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(1.02)), quantity));
-                }else {
-                    oi.setPrice(calcPrice(item.getUnitPrice(), quantity));
-                }
-            }
-            oi.setVolume(calcVolume(item.getPackageVolume(), quantity));
-            oi.setId(new OrderItemId(order.getOrderNumber(), item.getId()));
-            order.addItem(oi);
+            newLine(order, item, quantity);
         } else {
-            long newQty = oi.getRequestedQty() + quantity;
-            oi.setRequestedQty(newQty);
-            if (newQty >= 100) {
-                oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(0.9)), newQty));
-            } else {
-                if(item.getQuantity()<20){
-                    oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(1.02)), newQty));
-                }else {
-                    oi.setPrice(calcPrice(item.getUnitPrice(), newQty));
-                }
-            }
-            oi.setVolume(calcVolume(item.getPackageVolume(), newQty));
+            priceLine(oi, item, oi.getRequestedQty() + quantity);
         }
 
         return orders.save(order);
@@ -87,19 +71,7 @@ public class OrderServiceImpl implements OrderService {
         OrderItem oi = orderItems.findByOrderOrderNumberAndItemId(order.getOrderNumber(), itemId)
                 .orElseThrow(() -> new BusinessRuleExceptions("Item not present in order"));
 
-        Item item = oi.getItem();
-        oi.setRequestedQty(quantity);
-        if(quantity >= 100){
-            oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(0.9)), quantity));
-        }
-        else {
-            if(item.getQuantity()<20){
-                oi.setPrice(calcPrice(item.getUnitPrice().multiply(java.math.BigDecimal.valueOf(1.02)), quantity));
-            }else {
-                oi.setPrice(calcPrice(item.getUnitPrice(), quantity));
-            }
-        }
-        oi.setVolume(calcVolume(item.getPackageVolume(), quantity));
+        priceLine(oi, oi.getItem(), quantity);
 
         return orders.save(order);
     }
@@ -112,12 +84,67 @@ public class OrderServiceImpl implements OrderService {
         OrderItem oi = orderItems.findByOrderOrderNumberAndItemId(order.getOrderNumber(), itemId)
                 .orElseThrow(() -> new BusinessRuleExceptions("Item not present in order"));
 
-        order.removeItem(oi);
+        dropLine(order, oi);
         orderItems.delete(oi);
 
         return orders.save(order);
     }
 
+    @Override
+    public Order applyLineItems(Long clientId, Long orderId, List<LineItemOperation> operations) {
+        // lock the order row alone (a locking fetch join would lock the item rows too), then load all of its
+        // lines with their items in one query
+        findOwnedOrder(clientId, orderId);
+        Order order = orders.findWithItemsByOrderNumberAndClientId(orderId, clientId)
+                .orElseThrow(() -> new BusinessRuleExceptions("Order not found for this client"));
+        ensureEditable(order);
+
+        Map<Long, OrderItem> lines = new HashMap<>();
+        for (OrderItem oi : order.getItems()) lines.put(oi.getItem().getId(), oi);
+
+        Set<Long> wanted = new HashSet<>();
+        for (LineItemOperation op : operations) {
+            if (op.op() == LineItemOperation.Op.ADD && !lines.containsKey(op.itemId())) wanted.add(op.itemId());
+        }
+        Map<Long, ItemDto> known = wanted.isEmpty() ? Map.of() : catalog.findAll(wanted);
+
+        // removals are applied last so that remove-then-add of the same item reuses its row
+        Set<Long> removed = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            LineItemOperation op = operations.get(i);
+            OrderItem oi = lines.get(op.itemId());
+            boolean present = oi != null && !removed.contains(op.itemId());
+            if (op.op() != LineItemOperation.Op.REMOVE && op.quantity() == null)
+                throw new BusinessRuleExceptions("Operation " + i + ": quantity is required for " + op.op());
+
+            switch (op.op()) {
+                case ADD -> {
+                    if (present) {
+                        priceLine(oi, oi.getItem(), oi.getRequestedQty() + op.quantity());
+                    } else if (oi != null) {
+                        removed.remove(op.itemId());
+                        priceLine(oi, oi.getItem(), op.quantity());
+                    } else {
+                        ItemDto item = known.get(op.itemId());
+                        if (item == null) throw new BusinessRuleExceptions("Operation " + i + ": item not found");
+                        lines.put(item.itemId(), newLine(order, item, op.quantity()));
+                    }
+                }
+                case UPDATE -> {
+                    if (!present) throw new BusinessRuleExceptions("Operation " + i + ": item not present in order");
+                    priceLine(oi, oi.getItem(), op.quantity());
+                }
+                case REMOVE -> {
+                    if (!present) throw new BusinessRuleExceptions("Operation " + i + ": item not present in order");
+                    removed.add(op.itemId());
+                }
+            }
+        }
+        for (Long itemId : removed) dropLine(order, lines.get(itemId)); // orphan removal deletes the rows
+
+        return orders.save(order);
+    }
+
     @Override
     public Order submitOrder(Long clientId, Long orderId) {
         Order order = findOwnedOrder(clientId, orderId);
@@ -127,11 +154,7 @@ public class OrderServiceImpl implements OrderService {
         if (order.getItems().isEmpty()) {
             throw new BusinessRuleExceptions("Order must contain at least one item to submit");
         }
-        if (orderItems.total(orderId).compareTo(java.math.BigDecimal.valueOf(10000)) >= 0) {
-            order.setTotal(orderItems.total(orderId).multiply(java.math.BigDecimal.valueOf(0.95)));
-        }else {
-            order.setTotal(orderItems.total(orderId));
-        }
+        order.setTotal(pricing.orderTotal(order.getSubtotal()));
         order.setStatus(OrderStatus.AWAITING_APPROVAL);
         order.setSubmittedDate(LocalDateTime.now());
         return orders.save(order);
@@ -145,15 +168,31 @@ public class OrderServiceImpl implements OrderService {
                 order.getStatus() == OrderStatus.CANCELED) {
             throw new BusinessRuleExceptions("Order cannot be canceled in its current status");
         }
+        if (order.getStatus() == OrderStatus.APPROVED) stock.release(order.getOrderNumber());
         order.setStatus(OrderStatus.CANCELED);
+        urgentQueue.removed(orderId);
         return orders.save(order);
     }
 
     @Override
-    public List<Order> listMyOrders(Long clientId, OrderStatus status) {
-        return (status == null)
-                ? orders.findByClientId(clientId)
-                : orders.findByClientIdAndStatus(clientId, status);
+    public CursorPage<Order> listMyOrders(Long clientId, OrderStatus status, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        OrderCursor after = OrderCursor.decode(cursor);
+
+        // phase one pages ids on the index; phase two loads lines for that page only
+        List<Long> ids = orders.findClientPageIds(clientId, status, after.date(), after.orderNumber(),
+                Limit.of(size + 1));
+        boolean more = ids.size() > size;
+        if (more) ids = ids.subList(0, size);
+        if (ids.isEmpty()) return new CursorPage<>(List.of(), null);
+
+        Map<Long, Order> loaded = new HashMap<>();
+        orders.findAllByOrderNumberIn(ids).forEach(o -> loaded.put(o.getOrderNumber(), o));
+        List<Order> page = ids.stream().map(loaded::get).filter(Objects::nonNull).toList();
+
+        Order last = page.get(page.size() - 1);
+        String next = more ? new OrderCursor(last.getCreatedAt(), last.getOrderNumber()).encode() : null;
+        return new CursorPage<>(page, next);
     }
 
 
@@ -168,8 +207,40 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
-    private BigDecimal calcPrice(BigDecimal unitPrice, Long qty) {
-        return unitPrice.multiply(BigDecimal.valueOf(qty));
+    // priced from the cached snapshot; the row only needs a reference to the item, not a loaded entity
+    private OrderItem newLine(Order order, ItemDto item, long quantity) {
+        OrderItem oi = new OrderItem();
+        oi.setOrder(order);
+        oi.setItem(items.getReferenceById(item.itemId()));
+        priceLine(oi, item, quantity);
+        oi.setId(new OrderItemId(order.getOrderNumber(), item.itemId()));
+        order.addItem(oi);
+        return oi;
+    }
+
+    // stock-dependent rules see receipts and shipments still pending in the ledger, loaded with the row
+    private void priceLine(OrderItem oi, Item item, long quantity) {
+        priceLine(oi, item.getUnitPrice(), item.getCurrentQuantity(), item.getPackageVolume(), quantity);
+    }
+
+    // catalog quantities already include pending movements
+    private void priceLine(OrderItem oi, ItemDto item, long quantity) {
+        priceLine(oi, item.price(), item.quantity(), item.volume(), quantity);
+    }
+
+    private void priceLine(OrderItem oi, BigDecimal unitPrice, Long stock, Long packageVolume, long quantity) {
+        BigDecimal oldPrice = oi.getPrice() == null ? BigDecimal.ZERO : oi.getPrice();
+        long oldVolume = oi.getVolume() == null ? 0L : oi.getVolume();
+
+        oi.setRequestedQty(quantity);
+        oi.setPrice(pricing.linePrice(unitPrice, quantity, stock));
+        oi.setVolume(calcVolume(packageVolume, quantity));
+        oi.getOrder().adjustTotals(oi.getPrice().subtract(oldPrice), oi.getVolume() - oldVolume);
+    }
+
+    private void dropLine(Order order, OrderItem oi) {
+        order.adjustTotals(oi.getPrice().negate(), -oi.getVolume());
+        order.removeItem(oi);
     }
 
     private Long calcVolume(Long packageVolume, Long qty) {
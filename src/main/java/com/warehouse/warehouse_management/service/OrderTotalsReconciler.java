@@ -0,0 +1,58 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.OrderTotalsDrift;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Nightly check of the denormalised {@code orders.subtotal} / {@code total_volume} columns
+ * against their lines. Drift on orders that can still be edited is logged and corrected; submitted
+ * orders were priced from their subtotal, so drift there is only logged rather than leaving
+ * {@code total} out of step with a corrected subtotal.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderTotalsReconciler {
+
+    static final String JOB = "reconcile-order-totals";
+    static final List<OrderStatus> EDITABLE = List.of(OrderStatus.CREATED, OrderStatus.DECLINED);
+    static final List<OrderStatus> PRICED = List.of(OrderStatus.AWAITING_APPROVAL, OrderStatus.APPROVED);
+
+    private final OrderRepository orders;
+    private final JobLeaseManager leases;
+    private final PlatformTransactionManager transactionManager;
+
+    @Scheduled(cron = "0 40 2 * * *", zone = "${spring.delivery.zone}")
+    public void reconcileNightly() {
+        leases.runExclusively(JOB, this::reconcile);
+    }
+
+    /** Returns the number of orders corrected. */
+    public int reconcile() {
+        Integer fixed = new TransactionTemplate(transactionManager).execute(status -> {
+            int n = 0;
+            for (OrderTotalsDrift d : orders.findTotalsDrift(PRICED)) {
+                log.warn("Order {} totals drifted after pricing and are left as priced: subtotal {} vs lines {}, " +
+                        "volume {} vs lines {}", d.orderNumber(), d.storedSubtotal(), d.actualSubtotal(),
+                        d.storedVolume(), d.actualVolume());
+            }
+            for (OrderTotalsDrift d : orders.findTotalsDrift(EDITABLE)) {
+                log.warn("Order {} totals drifted: subtotal {} -> {}, volume {} -> {}", d.orderNumber(),
+                        d.storedSubtotal(), d.actualSubtotal(), d.storedVolume(), d.actualVolume());
+                n += orders.correctTotals(d.orderNumber(), d.storedSubtotal(), d.storedVolume(),
+                        d.actualSubtotal(), d.actualVolume());
+            }
+            return n;
+        });
+        return fixed == null ? 0 : fixed;
+    }
+}
@@ -0,0 +1,38 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.entity.IdSequences;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out blocks of ids from the rows behind the pooled {@code @TableGenerator}s, for inserts that go around
+ * Hibernate. The row stores the last id handed out, and under the pooled optimizer a reader of value V owns
+ * {@code [V + 2 - ALLOCATION_SIZE, V + 1]} and leaves V + ALLOCATION_SIZE behind. Taking a block of n the same
+ * way means starting at {@code V + 2 - ALLOCATION_SIZE} and leaving V + n, so the next reader's pool begins
+ * right after the block.
+ */
+@Component
+@RequiredArgsConstructor
+public class PooledIds {
+
+    private final JdbcTemplate jdbc;
+    private final PlatformTransactionManager transactionManager;
+
+    /** First id of a block of {@code count} consecutive ids, committed before this returns. */
+    public long allocate(String sequence, int count) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long value = tx.execute(s -> {
+            Long v = jdbc.queryForObject("select " + IdSequences.VALUE_COLUMN + " from " + IdSequences.TABLE
+                    + " where " + IdSequences.NAME_COLUMN + " = ? for update", Long.class, sequence);
+            jdbc.update("update " + IdSequences.TABLE + " set " + IdSequences.VALUE_COLUMN + " = ? where "
+                    + IdSequences.NAME_COLUMN + " = ?", v + count, sequence);
+            return v;
+        });
+        return value + 2 - IdSequences.ALLOCATION_SIZE;
+    }
+}
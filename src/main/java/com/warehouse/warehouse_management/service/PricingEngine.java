@@ -0,0 +1,100 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.PricingConfig;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * All order pricing rules in one place, computed on {@code long} cents.
+ * <p>
+ * Rules are compiled from {@link PricingConfig} into flat arrays at startup. Line rules are
+ * checked in order and the first match wins (bulk discount, then low-stock surcharge), then
+ * the large-order discount applies to the subtotal and the weekend surcharge to the total.
+ * Each multiplication rounds half-up to whole cents. The {@code long} methods do not allocate;
+ * {@link BigDecimal} appears only in the conversion helpers used at the entity boundary.
+ */
+@Component
+public class PricingEngine {
+
+    static final int ONE = 10_000;
+
+    // compiled line rules: applies when qty >= minQty and stock < stockBelow
+    private final long[] lineMinQty;
+    private final long[] lineStockBelow;
+    private final int[] lineBasisPoints;
+
+    private final long largeOrderMinCents;
+    private final int largeOrderBasisPoints;
+    private final int weekendBasisPoints;
+
+    public PricingEngine(PricingConfig config) {
+        this.lineMinQty = new long[]{config.getBulkMinQty(), 0L};
+        this.lineStockBelow = new long[]{Long.MAX_VALUE, config.getLowStockBelow()};
+        this.lineBasisPoints = new int[]{config.getBulkBasisPoints(), config.getLowStockBasisPoints()};
+        this.largeOrderMinCents = config.getLargeOrderMinCents();
+        this.largeOrderBasisPoints = config.getLargeOrderBasisPoints();
+        this.weekendBasisPoints = config.getWeekendBasisPoints();
+    }
+
+    // ---- hot path (cents) ----
+
+    public int lineBasisPoints(long qty, long stock) {
+        for (int i = 0; i < lineBasisPoints.length; i++) {
+            if (qty >= lineMinQty[i] && stock < lineStockBelow[i]) return lineBasisPoints[i];
+        }
+        return ONE;
+    }
+
+    public long lineCents(long unitCents, long qty, long stock) {
+        return apply(Math.multiplyExact(unitCents, qty), lineBasisPoints(qty, stock));
+    }
+
+    /** Prices every line of an order into {@code out} and returns the subtotal. */
+    public long priceLines(long[] unitCents, long[] qty, long[] stock, long[] out) {
+        long subtotal = 0L;
+        for (int i = 0; i < unitCents.length; i++) {
+            out[i] = lineCents(unitCents[i], qty[i], stock[i]);
+            subtotal = Math.addExact(subtotal, out[i]);
+        }
+        return subtotal;
+    }
+
+    public long orderTotalCents(long subtotalCents) {
+        return subtotalCents >= largeOrderMinCents ? apply(subtotalCents, largeOrderBasisPoints) : subtotalCents;
+    }
+
+    public long weekendCents(long totalCents) {
+        return apply(totalCents, weekendBasisPoints);
+    }
+
+    static long apply(long cents, int basisPoints) {
+        // split so cents * basisPoints cannot overflow for any realistic amount
+        long whole = Math.multiplyExact(cents / ONE, (long) basisPoints);
+        long part = ((cents % ONE) * basisPoints + ONE / 2) / ONE;
+        return whole + part;
+    }
+
+    // ---- entity boundary ----
+
+    public BigDecimal linePrice(BigDecimal unitPrice, long qty, Long stock) {
+        return fromCents(lineCents(toCents(unitPrice), qty, stock == null ? 0L : stock));
+    }
+
+    public BigDecimal orderTotal(BigDecimal subtotal) {
+        return fromCents(orderTotalCents(toCents(subtotal)));
+    }
+
+    public BigDecimal withWeekendSurcharge(BigDecimal total) {
+        return fromCents(weekendCents(toCents(total)));
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
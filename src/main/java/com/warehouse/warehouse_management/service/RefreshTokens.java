@@ -0,0 +1,131 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.entity.RefreshToken;
+import com.warehouse.warehouse_management.repository.RefreshTokenRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Refresh tokens with rotation. Each login starts a family; every {@code /auth/refresh} spends the presented
+ * token and issues its successor in the same family. Presenting a token that was already spent means it
+ * leaked, so the whole family is revoked: its refresh tokens and the access tokens issued with them.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokens {
+
+    static final String PURGE_JOB = "token-purge";
+
+    private final RefreshTokenRepository tokens;
+    private final UserCache userCache;
+    private final TokenRevocations revocations;
+    private final JwtService jwtService;
+    private final JwtConfig config;
+    private final JobLeaseManager leases;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Starts a new family for a fresh login. */
+    public IssuedTokens issue(AuthenticatedUser user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Spends {@code refresh} and returns its successors, or null when it must be refused: not a refresh token,
+     * revoked, expired, or already spent (which also revokes its family).
+     */
+    public IssuedTokens rotate(Jwt refresh) {
+        if (refresh == null || !refresh.isRefreshToken() || refresh.getId() == null || refresh.getFamilyId() == null) {
+            return null;
+        }
+        if (revocations.isRevoked(refresh.getId())) return null;
+
+        if (tokens.rotate(refresh.getId(), LocalDateTime.now()) == 0) {
+            RefreshToken row = tokens.findById(refresh.getId()).orElse(null);
+            if (row != null && row.getRotatedAt() != null && !row.isRevoked()) {
+                log.warn("Refresh token reused for user {}; revoking its family", row.getUserId());
+                revokeFamilies(List.of(row.getFamilyId()));
+            }
+            return null;
+        }
+        return userCache.findById(refresh.getUserId())
+                .map(user -> issue(user, refresh.getFamilyId()))
+                .orElse(null);
+    }
+
+    /** Ends the login session {@code access} belongs to; the access token itself is refused from now on. */
+    public void logout(Jwt access) {
+        if (access == null || access.getId() == null) return;
+        Optional<RefreshToken> row = tokens.findByAccessJti(access.getId());
+        if (row.isPresent()) {
+            revokeFamilies(List.of(row.get().getFamilyId()));
+        } else {
+            revocations.revoke(Map.of(access.getId(), toLocal(access.getExpiresAt())));
+        }
+    }
+
+    /** Revokes every live session of the user, e.g. after a role change or deletion. */
+    public void revokeAllForUser(Long userId) {
+        revokeFamilies(tokens.findLiveFamilies(userId));
+    }
+
+    @Scheduled(cron = "0 30 3 * * *", zone = "${spring.delivery.zone}")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void purgeNightly() {
+        leases.runExclusively(PURGE_JOB, this::purgeExpired);
+    }
+
+    /** Deletes refresh tokens and revocations whose tokens have expired; both would be rejected anyway. */
+    public void purgeExpired() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int refresh = tokens.deleteExpired(LocalDateTime.now());
+            int revoked = revocations.purgeExpired();
+            log.info("Purged {} expired refresh tokens and {} expired revocations", refresh, revoked);
+        });
+    }
+
+    private IssuedTokens issue(AuthenticatedUser user, String familyId) {
+        Jwt access = jwtService.generateAccessToken(user);
+        Jwt refresh = jwtService.generateRefreshToken(user, familyId);
+
+        RefreshToken row = new RefreshToken();
+        row.setJti(refresh.getId());
+        row.setFamilyId(familyId);
+        row.setUserId(user.id());
+        row.setAccessJti(access.getId());
+        row.setIssuedAt(LocalDateTime.now());
+        row.setExpiresAt(toLocal(refresh.getExpiresAt()));
+        tokens.save(row);
+        return new IssuedTokens(access, refresh);
+    }
+
+    private void revokeFamilies(Collection<String> familyIds) {
+        if (familyIds.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, LocalDateTime> ids = new HashMap<>();
+        for (RefreshToken t : tokens.findAllByFamilyIdInAndRevokedFalse(familyIds)) {
+            // spent tokens are refused by rotate() already; only the live one needs the fast check
+            if (t.getRotatedAt() == null && t.getExpiresAt().isAfter(now)) ids.put(t.getJti(), t.getExpiresAt());
+            LocalDateTime accessExpiresAt = t.getIssuedAt().plusSeconds(config.getAccessTokenExpiration());
+            if (accessExpiresAt.isAfter(now)) ids.put(t.getAccessJti(), accessExpiresAt);
+        }
+        tokens.revokeFamilies(familyIds);
+        revocations.revoke(ids);
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,180 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.entity.Item;
+import com.warehouse.warehouse_management.entity.MovementKind;
+import com.warehouse.warehouse_management.entity.Order;
+import com.warehouse.warehouse_management.entity.OrderItem;
+import com.warehouse.warehouse_management.entity.StockReservation;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import com.warehouse.warehouse_management.repository.StockReservationRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Stock held for approved orders.
+ * <p>
+ * Approval reserves every line with one conditional batch on {@code items.reserved}, in item id order, so
+ * concurrent callers cannot oversell and take row locks in a consistent order. The items' pending ledger
+ * movements are folded in first; when any row still comes back short, the rows that did apply are undone and the
+ * caller gets every short item at once. Scheduling and cancelling only ever give
+ * availability back or leave it as it is, so they are pending {@link InventoryLedger} inserts that leave the
+ * item rows alone.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class StockReservations {
+
+    private final ItemRepository items;
+    private final StockReservationRepository reservations;
+    private final AvailableToPromise atp;
+    private final ItemCatalog catalog;
+    private final InventoryLedger ledger;
+
+    private record Lines(List<Item> items, long[] ids, long[] qty) {
+        static Lines of(Order o) {
+            List<OrderItem> sorted = o.getItems().stream()
+                    .sorted(Comparator.comparing(oi -> oi.getItem().getId()))
+                    .toList();
+            List<Item> its = new ArrayList<>(sorted.size());
+            long[] ids = new long[sorted.size()];
+            long[] qty = new long[sorted.size()];
+            for (int i = 0; i < ids.length; i++) {
+                its.add(sorted.get(i).getItem());
+                ids[i] = its.get(i).getId();
+                qty[i] = sorted.get(i).getRequestedQty();
+            }
+            return new Lines(its, ids, qty);
+        }
+    }
+
+    /** Reserves every line of {@code o}; throws listing every short item if any cannot be covered. */
+    public void reserve(Order o) {
+        Lines lines = Lines.of(o);
+        // pending releases and receipts only count once they are in the snapshot. Folding first takes movement
+        // locks before item locks, the same order as compaction, so the two cannot deadlock
+        ledger.fold(boxed(lines.ids()));
+        String shortage = tryReserve(lines);
+        if (shortage != null) throw new BusinessRuleExceptions(shortage);
+
+        reservations.reserveLines(o.getOrderNumber());
+        ledger.recordApplied(MovementKind.RESERVATION, o.getOrderNumber(), lines.ids(), new long[lines.ids().length], lines.qty());
+        atp.adjust(lines.ids(), lines.qty(), -1);
+    }
+
+    /**
+     * Turns the reservation of {@code o} into a stock deduction. Returns null on success, otherwise a message
+     * listing every item that no longer has the stock; nothing is changed in that case.
+     */
+    public String consume(Order o) {
+        Lines lines = Lines.of(o);
+        long[] out = negated(lines.qty());
+        if (reservations.countByIdOrderId(o.getOrderNumber()) == lines.ids().length) {
+            // the stock is already held for this order, so shipping it needs no check and no item row lock
+            reservations.deleteAllForOrder(o.getOrderNumber());
+            ledger.record(MovementKind.SHIPMENT, o.getOrderNumber(), lines.ids(), out, out);
+            return null;
+        }
+
+        // lines without a reservation row come out of unreserved stock only; what other orders hold stays theirs
+        long[] held = heldPerLine(o.getOrderNumber(), lines);
+        long[] unheld = new long[held.length];
+        for (int i = 0; i < held.length; i++) unheld[i] = lines.qty()[i] - held[i];
+        ledger.fold(boxed(lines.ids()));
+        int[] updated = items.consumeAll(lines.ids(), lines.qty(), held);
+        String shortage = undoIfShort(lines, updated, held);
+        if (shortage == null) {
+            reservations.deleteAllForOrder(o.getOrderNumber());
+            ledger.recordApplied(MovementKind.SHIPMENT, o.getOrderNumber(), lines.ids(), out, negated(held));
+            atp.adjust(lines.ids(), unheld, -1);
+            catalog.invalidate(lines.ids());
+        }
+        return shortage;
+    }
+
+    /** Gives back whatever {@code orderNumber} has reserved; a no-op for orders holding nothing. */
+    public void release(Long orderNumber) {
+        List<StockReservation> held = reservations.findAllByIdOrderId(orderNumber).stream()
+                .sorted(Comparator.comparing(r -> r.getId().getItemId()))
+                .toList();
+        if (held.isEmpty()) return;
+
+        long[] ids = new long[held.size()];
+        long[] qty = new long[held.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = held.get(i).getId().getItemId();
+            qty[i] = held.get(i).getQuantity();
+        }
+        ledger.record(MovementKind.RELEASE, orderNumber, ids, new long[ids.length], negated(qty));
+        reservations.deleteAllForOrder(orderNumber);
+        atp.adjust(ids, qty, 1);
+    }
+
+    static String shortageMessage(List<Item> shortItems) {
+        return "Insufficient stock for items: " + shortItems.stream()
+                .map(it -> it.getId() + " (" + it.getName() + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    private String tryReserve(Lines lines) {
+        return undoIfShort(lines, items.reserveAll(lines.ids(), lines.qty()), null);
+    }
+
+    // how much of each line the order's reservation rows cover
+    private long[] heldPerLine(Long orderNumber, Lines lines) {
+        Map<Long, Long> byItem = new HashMap<>();
+        for (StockReservation r : reservations.findAllByIdOrderId(orderNumber))
+            byItem.put(r.getId().getItemId(), r.getQuantity());
+        long[] held = new long[lines.ids().length];
+        for (int i = 0; i < held.length; i++)
+            held[i] = Math.min(lines.qty()[i], byItem.getOrDefault(lines.ids()[i], 0L));
+        return held;
+    }
+
+    private static long[] negated(long[] values) {
+        long[] out = new long[values.length];
+        for (int i = 0; i < values.length; i++) out[i] = -values[i];
+        return out;
+    }
+
+    private static List<Long> boxed(long[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+
+    // held is null when undoing reservations, otherwise the reserved part of each consumed line
+    private String undoIfShort(Lines lines, int[] updated, long[] held) {
+        List<Item> shortItems = new ArrayList<>();
+        int applied = 0;
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) shortItems.add(lines.items().get(i));
+            else applied++;
+        }
+        if (shortItems.isEmpty()) return null;
+
+        if (applied > 0) {
+            long[] backIds = new long[applied];
+            long[] backQty = new long[applied];
+            long[] backHeld = new long[applied];
+            for (int i = 0, j = 0; i < updated.length; i++) {
+                if (updated[i] == 0) continue;
+                backIds[j] = lines.ids()[i];
+                backQty[j] = lines.qty()[i];
+                if (held != null) backHeld[j] = held[i];
+                j++;
+            }
+            if (held == null) items.releaseAll(backIds, backQty);
+            else items.unconsumeAll(backIds, backQty, backHeld);
+        }
+        return shortageMessage(shortItems);
+    }
+}
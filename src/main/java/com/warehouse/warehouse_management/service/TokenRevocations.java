@@ -0,0 +1,159 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.entity.RevokedToken;
+import com.warehouse.warehouse_management.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids ({@code jti}), checked on every authenticated request.
+ * <p>
+ * A Bloom filter answers the common case (not revoked) with a few bit reads; only a filter hit consults the
+ * exact set, so a false positive costs one hash lookup and never refuses a token. Neither step allocates.
+ * {@code revoked_tokens} is the source of truth: revocations are written there and applied here after commit,
+ * and a timer rebuilds both structures from it, which drops ids whose tokens have expired and picks up
+ * revocations made by other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocations {
+
+    private final RevokedTokenRepository revoked;
+    private final JwtConfig config;
+
+    private volatile Snapshot current;
+
+    private static final class Snapshot {
+        final AtomicLongArray bits;
+        final int mask;
+        final int hashes;
+        // jti -> epoch millis after which the token is rejected as expired anyway
+        final Map<String, Long> exact = new ConcurrentHashMap<>();
+
+        Snapshot(int bitCount, int hashes) {
+            int size = Integer.highestOneBit(Math.max(64, bitCount - 1) << 1);
+            this.bits = new AtomicLongArray(size >>> 6);
+            this.mask = size - 1;
+            this.hashes = Math.max(1, hashes);
+        }
+
+        void add(String jti, long expiresAt) {
+            exact.put(jti, expiresAt);
+            long h = hash(jti);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (h1 + i * h2) & mask;
+                long m = 1L << bit;
+                int word = bit >>> 6;
+                long w;
+                while (((w = bits.get(word)) & m) == 0 && !bits.compareAndSet(word, w, w | m)) {
+                    // lost a race with another bit in the same word; retry
+                }
+            }
+        }
+
+        boolean mightContain(String jti) {
+            long h = hash(jti);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "#{@jwtConfig.revocationReloadIntervalMillis}",
+            initialDelayString = "#{@jwtConfig.revocationReloadIntervalMillis}")
+    public void reload() {
+        List<RevokedToken> rows = revoked.findAllByExpiresAtAfter(LocalDateTime.now());
+        Snapshot fresh = new Snapshot(config.getRevocationFilterBits(), config.getRevocationFilterHashes());
+        for (RevokedToken r : rows) fresh.add(r.getJti(), millis(r.getExpiresAt()));
+        synchronized (this) {
+            // revocations applied while the query ran may not be in its result
+            Snapshot old = current;
+            if (old != null) {
+                long now = System.currentTimeMillis();
+                old.exact.forEach((jti, expiresAt) -> {
+                    if (expiresAt > now && !fresh.exact.containsKey(jti)) fresh.add(jti, expiresAt);
+                });
+            }
+            current = fresh;
+        }
+        log.debug("Token revocations loaded: {} ids", fresh.exact.size());
+    }
+
+    // ---- reads ----
+
+    /** True when {@code jti} was revoked; null ids (tokens without one) are never revoked here. */
+    public boolean isRevoked(String jti) {
+        if (jti == null) return false;
+        Snapshot s = current;
+        if (s == null) {
+            reload();
+            s = current;
+        }
+        return s.mightContain(jti) && s.exact.containsKey(jti);
+    }
+
+    // ---- writes ----
+
+    /** Persists the revocations; this node refuses the ids once the surrounding transaction commits. */
+    public void revoke(Map<String, LocalDateTime> expiresAtByJti) {
+        if (expiresAtByJti.isEmpty()) return;
+        revoked.saveAll(expiresAtByJti.entrySet().stream()
+                .map(e -> new RevokedToken(e.getKey(), e.getValue()))
+                .toList());
+        Map<String, LocalDateTime> copy = Map.copyOf(expiresAtByJti);
+        TransactionHooks.afterCommit(() -> apply(copy));
+    }
+
+    /** Drops rows for tokens that have expired; returns the rows removed. */
+    public int purgeExpired() {
+        return revoked.deleteExpired(LocalDateTime.now());
+    }
+
+    private synchronized void apply(Map<String, LocalDateTime> expiresAtByJti) {
+        if (current == null) return; // the first load reads them from the table
+        expiresAtByJti.forEach((jti, at) -> current.add(jti, millis(at)));
+    }
+
+    private static long millis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // FNV-1a over the chars, then the murmur3 finalizer; no allocation, unlike String.getBytes()
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,232 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.TruckBooking;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.entity.Truck;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.TruckRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * In-memory view of which trucks are booked on which date.
+ * <p>
+ * Every truck gets a dense index; each date keeps a bitset of booked indices (and a separate
+ * one for URGENT bookings) plus the booked capacity of currently active trucks, so free
+ * capacity for a date is a subtraction. Loaded with one (date, vin, priority) projection query
+ * and kept current by the scheduling code; mutations are applied after the surrounding
+ * transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TruckCalendar {
+
+    private final TruckRepository trucks;
+    private final DeliveryRepository deliveries;
+    private final DeliveryConfig config;
+
+    private final Map<String, Integer> indexByVin = new HashMap<>();
+    private long[] capacity = new long[64];
+    private final BitSet active = new BitSet();
+    private long activeCapacity;
+    private final TreeMap<LocalDate, Day> days = new TreeMap<>();
+    private LocalDate loadedTo;
+
+    private static final class Day {
+        final BitSet booked = new BitSet();
+        final BitSet urgent = new BitSet();
+        long bookedActiveCapacity;
+        long urgentActiveCapacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        indexByVin.clear();
+        active.clear();
+        activeCapacity = 0L;
+        days.clear();
+        loadedTo = null;
+
+        trucks.findAll().forEach(this::putTruck);
+        LocalDate today = LocalDate.now();
+        loadRange(today, today.plusDays(config.getMaxLookaheadDays()));
+        log.info("Truck calendar loaded: {} trucks, {} booked dates", indexByVin.size(), days.size());
+    }
+
+    // ---- reads ----
+
+    public synchronized boolean hasActiveTrucks() {
+        ensureLoaded(LocalDate.now());
+        return !active.isEmpty();
+    }
+
+    public synchronized long activeCapacity() {
+        ensureLoaded(LocalDate.now());
+        return activeCapacity;
+    }
+
+    public synchronized long freeCapacity(LocalDate date, boolean urgent) {
+        ensureLoaded(date);
+        Day day = days.get(date);
+        if (day == null) return activeCapacity;
+        return activeCapacity - (urgent ? day.urgentActiveCapacity : day.bookedActiveCapacity);
+    }
+
+    /** Weekdays in {@code [start, start + count)} whose free capacity covers {@code volume}. */
+    public synchronized List<LocalDate> availableDays(LocalDate start, int count, long volume, boolean urgent) {
+        LocalDate end = start.plusDays(count - 1L);
+        ensureLoaded(end);
+        List<LocalDate> available = new ArrayList<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (isWeekend(d)) continue;
+            Day day = days.get(d);
+            long booked = day == null ? 0L : (urgent ? day.urgentActiveCapacity : day.bookedActiveCapacity);
+            if (activeCapacity - booked >= volume) available.add(d);
+        }
+        return available;
+    }
+
+    // ---- writes (applied after commit) ----
+
+    public void book(LocalDate date, Collection<Truck> booked, Priority priority) {
+        List<String> vins = vins(booked);
+        boolean urgent = priority == Priority.URGENT;
+        TransactionHooks.afterCommit(() -> applyBook(date, vins, urgent));
+    }
+
+    public void move(LocalDate from, LocalDate to, Collection<Truck> booked, Priority priority) {
+        List<String> vins = vins(booked);
+        boolean urgent = priority == Priority.URGENT;
+        TransactionHooks.afterCommit(() -> applyMove(from, to, vins, urgent));
+    }
+
+    public void setActive(Collection<String> vins, boolean flag) {
+        List<String> copy = List.copyOf(vins);
+        TransactionHooks.afterCommit(() -> applyActive(copy, flag));
+    }
+
+    public void truckSaved(Truck truck) {
+        String vin = truck.getVin();
+        long cap = truck.getContainerVolume() == null ? 0L : truck.getContainerVolume();
+        boolean flag = truck.isActive();
+        TransactionHooks.afterCommit(() -> applyTruck(vin, cap, flag));
+    }
+
+    public void truckRemoved(String vin) {
+        TransactionHooks.afterCommit(() -> applyActive(List.of(vin), false));
+    }
+
+    /** Drops dates before {@code today}; they can no longer be booked or queried. */
+    public synchronized void evictBefore(LocalDate today) {
+        days.headMap(today).clear();
+    }
+
+    private synchronized void applyBook(LocalDate date, List<String> vins, boolean urgent) {
+        if (loadedTo == null || date.isAfter(loadedTo)) return; // picked up by the next range load
+        Day day = days.computeIfAbsent(date, d -> new Day());
+        for (String vin : vins) mark(day, index(vin), urgent, true);
+    }
+
+    private synchronized void applyMove(LocalDate from, LocalDate to, List<String> vins, boolean urgent) {
+        Day src = days.get(from);
+        if (src != null) {
+            for (String vin : vins) mark(src, index(vin), urgent, false);
+        }
+        applyBook(to, vins, urgent);
+    }
+
+    private synchronized void applyActive(List<String> vins, boolean flag) {
+        for (String vin : vins) {
+            Integer idx = indexByVin.get(vin);
+            if (idx != null) setActive(idx, flag);
+        }
+    }
+
+    private synchronized void applyTruck(String vin, long cap, boolean flag) {
+        int idx = index(vin);
+        if (active.get(idx)) setActive(idx, false);
+        capacity[idx] = cap;
+        if (flag) setActive(idx, true);
+    }
+
+    // ---- internals (callers hold the monitor) ----
+
+    private void ensureLoaded(LocalDate upTo) {
+        if (loadedTo == null) {
+            reload();
+        }
+        if (upTo.isAfter(loadedTo)) {
+            LocalDate ahead = loadedTo.plusDays(config.getMaxLookaheadDays());
+            LocalDate to = upTo.isAfter(ahead) ? upTo : ahead;
+            loadRange(loadedTo.plusDays(1), to);
+        }
+    }
+
+    private void loadRange(LocalDate from, LocalDate to) {
+        for (TruckBooking b : deliveries.findBookingsBetween(from, to)) {
+            Day day = days.computeIfAbsent(b.scheduledDate(), x -> new Day());
+            mark(day, index(b.vin()), b.priority() == Priority.URGENT, true);
+        }
+        loadedTo = to;
+    }
+
+    private void putTruck(Truck t) {
+        int idx = index(t.getVin());
+        capacity[idx] = t.getContainerVolume() == null ? 0L : t.getContainerVolume();
+        if (t.isActive()) setActive(idx, true);
+    }
+
+    private int index(String vin) {
+        Integer idx = indexByVin.get(vin);
+        if (idx != null) return idx;
+        int next = indexByVin.size();
+        if (next == capacity.length) capacity = Arrays.copyOf(capacity, next * 2);
+        indexByVin.put(vin, next);
+        return next;
+    }
+
+    private void mark(Day day, int idx, boolean urgent, boolean booked) {
+        long cap = active.get(idx) ? capacity[idx] : 0L;
+        if (day.booked.get(idx) != booked) {
+            day.booked.set(idx, booked);
+            day.bookedActiveCapacity += booked ? cap : -cap;
+        }
+        if (urgent && day.urgent.get(idx) != booked) {
+            day.urgent.set(idx, booked);
+            day.urgentActiveCapacity += booked ? cap : -cap;
+        }
+    }
+
+    private void setActive(int idx, boolean flag) {
+        if (active.get(idx) == flag) return;
+        long delta = flag ? capacity[idx] : -capacity[idx];
+        active.set(idx, flag);
+        activeCapacity += delta;
+        for (Day day : days.values()) {
+            if (day.booked.get(idx)) day.bookedActiveCapacity += delta;
+            if (day.urgent.get(idx)) day.urgentActiveCapacity += delta;
+        }
+    }
+
+    private static List<String> vins(Collection<Truck> booked) {
+        return booked.stream().map(Truck::getVin).toList();
+    }
+
+    private static boolean isWeekend(LocalDate d) {
+        DayOfWeek w = d.getDayOfWeek();
+        return w == DayOfWeek.SATURDAY || w == DayOfWeek.SUNDAY;
+    }
+}
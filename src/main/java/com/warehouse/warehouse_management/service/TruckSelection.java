@@ -0,0 +1,20 @@
+package com.warehouse.warehouse_management.service;
+
+public record TruckSelection(int[] indices,
+                             long capacity,
+                             boolean optimal,
+                             long nodes,
+                             long elapsedNanos) {
+
+    public static TruckSelection none(boolean optimal, long nodes, long elapsedNanos) {
+        return new TruckSelection(new int[0], 0L, optimal, nodes, elapsedNanos);
+    }
+
+    public boolean isEmpty() {
+        return indices.length == 0;
+    }
+
+    public long elapsedMicros() {
+        return elapsedNanos / 1_000;
+    }
+}
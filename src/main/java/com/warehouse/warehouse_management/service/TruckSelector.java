@@ -0,0 +1,15 @@
+package com.warehouse.warehouse_management.service;
+
+public interface TruckSelector {
+    /**
+     * Picks the combination of trucks whose total capacity covers {@code target}
+     * with the least overshoot, breaking ties by the fewest trucks.
+     * Returned indices point into {@code capacities}; an empty selection means
+     * no combination can carry the volume.
+     * <p>
+     * The search is bounded by the configured time/node budget. When the budget
+     * runs out the best feasible combination found so far is returned with
+     * {@link TruckSelection#optimal()} set to {@code false}.
+     */
+    TruckSelection select(long[] capacities, long target);
+}
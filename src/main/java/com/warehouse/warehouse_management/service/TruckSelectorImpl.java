@@ -0,0 +1,248 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.TruckSelectionConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+@RequiredArgsConstructor
+public class TruckSelectorImpl implements TruckSelector {
+
+    // DP is used when the (gcd-scaled) sum range stays small enough to answer in a few ms,
+    // otherwise we fall back to branch-and-bound over groups of equally sized trucks.
+    static final int DP_MAX_CELLS = 1 << 20;
+    static final long DP_MAX_WORK = 1L << 25;
+
+    private final TruckSelectionConfig config;
+
+    @Override
+    public TruckSelection select(long[] capacities, long target) {
+        long started = System.nanoTime();
+        if (target <= 0 || capacities.length == 0) return TruckSelection.none(true, 0L, System.nanoTime() - started);
+
+        long[] sorted = new long[capacities.length];
+        int n = 0;
+        long total = 0L;
+        for (long c : capacities) {
+            if (c > 0) {
+                sorted[n++] = c;
+                total += c;
+            }
+        }
+        if (total < target) return TruckSelection.none(true, 0L, System.nanoTime() - started);
+
+        Groups groups = Groups.of(Arrays.copyOf(sorted, n));
+        long[] take = solveDp(groups, target);
+        if (take != null) return toSelection(capacities, groups, take, true, 0L, started);
+
+        Search search = new Search(groups, target,
+                started + config.getTimeBudgetMillis() * 1_000_000L, config.getNodeBudget());
+        search.dfs(0, 0L, 0);
+        if (search.bestSum == Long.MAX_VALUE) search.fillGreedy();
+        return toSelection(capacities, groups, search.bestTake, !search.exhausted, search.nodes, started);
+    }
+
+    private long[] solveDp(Groups g, long target) {
+        long gcd = 0L;
+        for (long v : g.values) gcd = gcd(gcd, v);
+
+        long t = ceilDiv(target, gcd);
+        long upper = Math.min(g.total / gcd, t + g.values[0] / gcd - 1);
+        if (upper + 1 > DP_MAX_CELLS) return null;
+        int cells = (int) upper + 1;
+
+        // bounded knapsack via binary splitting of each group's count
+        int pseudo = 0;
+        for (int c : g.counts) pseudo += 32 - Integer.numberOfLeadingZeros(c);
+        if ((long) pseudo * cells > DP_MAX_WORK) return null;
+
+        int[] weight = new int[pseudo];
+        int[] mult = new int[pseudo];
+        int[] group = new int[pseudo];
+        int p = 0;
+        for (int i = 0; i < g.values.length; i++) {
+            long w = g.values[i] / gcd;
+            int left = g.counts[i];
+            for (int m = 1; left > 0; m <<= 1) {
+                int k = Math.min(m, left);
+                weight[p] = (int) Math.min(w * k, cells);
+                mult[p] = k;
+                group[p] = i;
+                left -= k;
+                p++;
+            }
+        }
+
+        int[] dp = new int[cells];
+        Arrays.fill(dp, Integer.MAX_VALUE);
+        dp[0] = 0;
+        int words = (cells + 63) >>> 6;
+        long[][] took = new long[pseudo][words];
+
+        for (int j = 0; j < pseudo; j++) {
+            int w = weight[j];
+            int k = mult[j];
+            long[] bits = took[j];
+            for (int s = cells - 1; s >= w; s--) {
+                int prev = dp[s - w];
+                if (prev != Integer.MAX_VALUE && prev + k < dp[s]) {
+                    dp[s] = prev + k;
+                    bits[s >>> 6] |= 1L << s;
+                }
+            }
+        }
+
+        int best = -1;
+        for (int s = (int) t; s < cells; s++) {
+            if (dp[s] != Integer.MAX_VALUE) { best = s; break; }
+        }
+        if (best < 0) return new long[g.values.length];
+
+        long[] take = new long[g.values.length];
+        int s = best;
+        for (int j = pseudo - 1; j >= 0 && s > 0; j--) {
+            if ((took[j][s >>> 6] & (1L << s)) != 0) {
+                take[group[j]] += mult[j];
+                s -= weight[j];
+            }
+        }
+        return take;
+    }
+
+    private static final class Search {
+        final long[] values;
+        final int[] counts;
+        final long[] suffix;
+        final long target;
+        final long[] take;
+        final long deadline;
+        final long nodeBudget;
+        long[] bestTake;
+        long bestSum = Long.MAX_VALUE;
+        long bestCount = Long.MAX_VALUE;
+        long nodes;
+        boolean exhausted;
+
+        Search(Groups g, long target, long deadline, long nodeBudget) {
+            this.values = g.values;
+            this.counts = g.counts;
+            this.target = target;
+            this.deadline = deadline;
+            this.nodeBudget = nodeBudget;
+            this.take = new long[values.length];
+            this.bestTake = new long[values.length];
+            this.suffix = new long[values.length + 1];
+            for (int i = values.length - 1; i >= 0; i--) {
+                suffix[i] = suffix[i + 1] + values[i] * counts[i];
+            }
+        }
+
+        void dfs(int i, long sum, long cnt) {
+            if (exhausted) return;
+            if (++nodes > nodeBudget || ((nodes & 1023) == 0 && System.nanoTime() - deadline > 0)) {
+                exhausted = true;
+                return;
+            }
+            if (sum >= target) {
+                if (sum < bestSum || (sum == bestSum && cnt < bestCount)) {
+                    bestSum = sum;
+                    bestCount = cnt;
+                    System.arraycopy(take, 0, bestTake, 0, take.length);
+                }
+                return;
+            }
+            if (i == values.length) return;
+            if (sum + suffix[i] < target) return;
+
+            long remaining = target - sum;
+            long needed = ceilDiv(remaining, values[i]);
+            // values are sorted descending, so no completion can use fewer trucks than this
+            if (bestSum == target && cnt + needed >= bestCount) return;
+
+            long kMax = Math.min(counts[i], needed);
+            for (long k = kMax; k >= 0; k--) {
+                long next = sum + k * values[i];
+                if (next > bestSum) continue;
+                take[i] = k;
+                dfs(i + 1, next, cnt + k);
+            }
+            take[i] = 0;
+        }
+
+        // budget ran out before the first leaf: largest trucks first until the volume is covered
+        void fillGreedy() {
+            long sum = 0L;
+            for (int i = 0; i < values.length && sum < target; i++) {
+                long k = Math.min(counts[i], ceilDiv(target - sum, values[i]));
+                bestTake[i] = k;
+                sum += k * values[i];
+            }
+            bestSum = sum;
+        }
+    }
+
+    private TruckSelection toSelection(long[] capacities, Groups g, long[] take,
+                                       boolean optimal, long nodes, long started) {
+        int picked = 0;
+        for (long k : take) picked += (int) k;
+        if (picked == 0) return TruckSelection.none(optimal, nodes, System.nanoTime() - started);
+
+        long[] left = take.clone();
+        int[] indices = new int[picked];
+        long capacity = 0L;
+        int out = 0;
+        for (int idx = 0; idx < capacities.length && out < picked; idx++) {
+            long c = capacities[idx];
+            if (c <= 0) continue;
+            int grp = Arrays.binarySearch(g.ascending, c);
+            int i = g.values.length - 1 - grp;
+            if (left[i] > 0) {
+                left[i]--;
+                indices[out++] = idx;
+                capacity += c;
+            }
+        }
+        return new TruckSelection(indices, capacity, optimal, nodes, System.nanoTime() - started);
+    }
+
+    private record Groups(long[] values, int[] counts, long[] ascending, long total) {
+        static Groups of(long[] caps) {
+            Arrays.sort(caps);
+            int distinct = 0;
+            for (int i = 0; i < caps.length; i++) {
+                if (i == 0 || caps[i] != caps[i - 1]) distinct++;
+            }
+            long[] ascending = new long[distinct];
+            int[] ascCounts = new int[distinct];
+            long total = 0L;
+            int d = -1;
+            for (int i = 0; i < caps.length; i++) {
+                if (i == 0 || caps[i] != caps[i - 1]) ascending[++d] = caps[i];
+                ascCounts[d]++;
+                total += caps[i];
+            }
+            long[] values = new long[distinct];
+            int[] counts = new int[distinct];
+            for (int i = 0; i < distinct; i++) {
+                values[i] = ascending[distinct - 1 - i];
+                counts[i] = ascCounts[distinct - 1 - i];
+            }
+            return new Groups(values, counts, ascending, total);
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
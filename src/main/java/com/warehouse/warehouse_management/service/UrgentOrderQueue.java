@@ -0,0 +1,123 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.entity.Order;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * URGENT orders waiting in APPROVED, kept sorted by order number.
+ * <p>
+ * Maintained incrementally on approve/schedule/cancel/decline (after commit) so the
+ * "urgent orders first" rule is an O(1) check instead of a query per scheduling call.
+ * Rebuilt from the database on startup and periodically compared against it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UrgentOrderQueue {
+
+    private final OrderRepository orders;
+
+    // the set and its count travel together; a rebuild swaps in a new pair, so readers never see a half-built one
+    private static final class State {
+        final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        // ConcurrentSkipListSet.size() walks the whole set, so keep our own count
+        final AtomicInteger count = new AtomicInteger();
+    }
+
+    private volatile State state = new State();
+    private volatile boolean loaded;
+
+    // holds the monitor across the query so after-commit adds and removes land in the new state, not the old one
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        State fresh = new State();
+        for (Long id : orders.findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED)) {
+            if (fresh.pending.add(id)) fresh.count.incrementAndGet();
+        }
+        state = fresh;
+        loaded = true;
+        log.info("Urgent order queue rebuilt with {} orders", fresh.count.get());
+    }
+
+    public void approved(Order o) {
+        if (o.getPriority() != Priority.URGENT) return;
+        Long id = o.getOrderNumber();
+        TransactionHooks.afterCommit(() -> add(id));
+    }
+
+    public void removed(Long orderNumber) {
+        TransactionHooks.afterCommit(() -> remove(orderNumber));
+    }
+
+    public int size() {
+        ensureLoaded();
+        return state.count.get();
+    }
+
+    /** Number of URGENT+APPROVED orders waiting, not counting {@code orderNumber}. */
+    public int countOtherThan(Long orderNumber) {
+        ensureLoaded();
+        State s = state;
+        int n = s.count.get();
+        return s.pending.contains(orderNumber) ? n - 1 : n;
+    }
+
+    public List<Long> firstOtherThan(Long orderNumber, int limit) {
+        ensureLoaded();
+        List<Long> out = new ArrayList<>(limit);
+        for (Long id : state.pending) {
+            if (out.size() == limit) break;
+            if (!id.equals(orderNumber)) out.add(id);
+        }
+        return out;
+    }
+
+    public SortedSet<Long> snapshot() {
+        ensureLoaded();
+        return new TreeSet<>(state.pending);
+    }
+
+    @Scheduled(fixedDelayString = "#{@urgentQueueConfig.verifyIntervalMillis}",
+            initialDelayString = "#{@urgentQueueConfig.verifyIntervalMillis}")
+    public void verify() {
+        if (!loaded) return;
+        Set<Long> db = new HashSet<>(orders.findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED));
+        State s = state;
+        Set<Long> mem = new HashSet<>(s.pending);
+        if (db.equals(mem) && s.count.get() == db.size()) return;
+
+        Set<Long> missing = new HashSet<>(db);
+        missing.removeAll(mem);
+        Set<Long> stale = new HashSet<>(mem);
+        stale.removeAll(db);
+        log.warn("Urgent order queue drifted from database (missing={}, stale={}, count={}); rebuilding",
+                missing, stale, s.count.get());
+        rebuild();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) rebuild();
+    }
+
+    private synchronized void add(Long id) {
+        State s = state;
+        if (s.pending.add(id)) s.count.incrementAndGet();
+    }
+
+    private synchronized void remove(Long id) {
+        State s = state;
+        if (s.pending.remove(id)) s.count.decrementAndGet();
+    }
+}
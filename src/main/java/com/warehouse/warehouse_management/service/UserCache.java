@@ -0,0 +1,70 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.UserCacheConfig;
+import com.warehouse.warehouse_management.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of user profiles by id, for issuing tokens on refresh without a query. Same scheme as
+ * {@link ItemCatalog}: a bounded LRU map, eviction after commit, a generation that keeps a load started before an
+ * eviction from being stored, and a TTL for other nodes' writes.
+ * <p>
+ * Credentials are deliberately not cached: a TTL would let another node accept an old password after it changed.
+ */
+@Component
+public class UserCache {
+
+    private record Entry(AuthenticatedUser user, long loadedAt) {}
+
+    private final UserRepository users;
+    private final UserCacheConfig config;
+
+    private final LinkedHashMap<Long, Entry> byId;
+    private long generation;
+
+    public UserCache(UserRepository users, UserCacheConfig config) {
+        this.users = users;
+        this.config = config;
+        this.byId = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > config.getMaxEntries();
+            }
+        };
+    }
+
+    public Optional<AuthenticatedUser> findById(Long id) {
+        long gen;
+        synchronized (this) {
+            Entry e = byId.get(id);
+            if (e != null && fresh(e.loadedAt())) return Optional.of(e.user());
+            gen = generation;
+        }
+        Optional<AuthenticatedUser> loaded = users.findById(id).map(AuthenticatedUser::of);
+        loaded.ifPresent(u -> store(gen, u));
+        return loaded;
+    }
+
+    /** Drops the user once the current transaction commits. */
+    public void invalidate(Long id) {
+        TransactionHooks.afterCommit(() -> evict(id));
+    }
+
+    private synchronized void evict(Long id) {
+        generation++;
+        byId.remove(id);
+    }
+
+    private synchronized void store(long gen, AuthenticatedUser user) {
+        if (gen != generation) return;
+        byId.put(user.id(), new Entry(user, System.nanoTime()));
+    }
+
+    private boolean fresh(long loadedAt) {
+        return System.nanoTime() - loadedAt < config.getTtlSeconds() * 1_000_000_000L;
+    }
+}
@@ -2,6 +2,7 @@ package com.warehouse.warehouse_management.service;
 
 import com.warehouse.warehouse_management.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,13 +16,21 @@ import java.util.Collections;
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
 
+    /** Login details that also carry the profile, so tokens are issued without loading the user again. */
+    @Getter
+    public static class Account extends User {
+        private final AuthenticatedUser profile;
+
+        Account(com.warehouse.warehouse_management.entity.User user) {
+            super(user.getEmail(), user.getPassword(), Collections.emptyList());
+            this.profile = AuthenticatedUser.of(user);
+        }
+    }
+
+    // always read from the database: a cached hash could outlive a password change made on another node
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
             var user = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User Not Found"));
-            return new User(
-                    user.getEmail(),
-                    user.getPassword(),
-                    Collections.emptyList()
-            );
+            return new Account(user);
     }
 }
@@ -0,0 +1,3 @@
+-- unfiltered manager order list: keyset on (submitted_date, order_number) desc.
+-- status-filtered pages use idx_orders_status_submitted (InnoDB appends the primary key)
+CREATE INDEX idx_orders_submitted ON orders(submitted_date, order_number);
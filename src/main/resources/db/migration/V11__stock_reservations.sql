@@ -0,0 +1,26 @@
+-- stock promised to approved orders; quantity - reserved is what can still be promised
+ALTER TABLE items ADD COLUMN reserved BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE stock_reservations (
+                                    order_id BIGINT NOT NULL,
+                                    item_id BIGINT NOT NULL,
+                                    quantity BIGINT NOT NULL,
+                                    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                    PRIMARY KEY (order_id, item_id),
+                                    CONSTRAINT fk_sr_order
+                                        FOREIGN KEY (order_id) REFERENCES orders(order_number),
+                                    CONSTRAINT fk_sr_item
+                                        FOREIGN KEY (item_id) REFERENCES items(id)
+);
+
+CREATE INDEX idx_sr_item ON stock_reservations(item_id);
+
+-- orders already approved and waiting for a delivery hold their stock from now on
+INSERT INTO stock_reservations (order_id, item_id, quantity)
+SELECT oi.order_id, oi.item_id, oi.requested_qty
+FROM order_items oi
+         JOIN orders o ON o.order_number = oi.order_id
+WHERE o.status = 'APPROVED';
+
+UPDATE items
+SET reserved = (SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r WHERE r.item_id = items.id);
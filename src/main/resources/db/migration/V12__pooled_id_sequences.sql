@@ -0,0 +1,12 @@
+-- backing rows for the pooled table generators of items, orders and deliveries
+CREATE TABLE id_sequences (
+                              seq_name VARCHAR(64) NOT NULL,
+                              next_val BIGINT NOT NULL,
+                              PRIMARY KEY (seq_name)
+);
+
+-- next_val holds the last id handed out and the pooled optimizer gives a reader of V the block
+-- (V - 48) .. (V + 1) (allocation size 50, see IdSequences), so each row starts 49 past the highest id
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'items', COALESCE(MAX(id), 0) + 49 FROM items;
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'orders', COALESCE(MAX(order_number), 0) + 49 FROM orders;
+INSERT INTO id_sequences (seq_name, next_val) SELECT 'deliveries', COALESCE(MAX(id), 0) + 49 FROM deliveries;
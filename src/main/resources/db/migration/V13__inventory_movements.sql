@@ -0,0 +1,16 @@
+-- append-only stock ledger; rows with folded = FALSE are not yet part of items.quantity / items.reserved
+CREATE TABLE inventory_movements (
+                                     id BIGINT NOT NULL AUTO_INCREMENT,
+                                     item_id BIGINT NOT NULL,
+                                     kind VARCHAR(16) NOT NULL,
+                                     quantity_delta BIGINT NOT NULL,
+                                     reserved_delta BIGINT NOT NULL,
+                                     order_id BIGINT NULL,
+                                     folded BOOLEAN NOT NULL DEFAULT FALSE,
+                                     created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+                                     PRIMARY KEY (id)
+);
+
+-- no FK to items: history outlives deleted items
+CREATE INDEX idx_im_pending ON inventory_movements(folded, item_id);
+CREATE INDEX idx_im_item ON inventory_movements(item_id, id);
@@ -0,0 +1,27 @@
+-- one row per issued refresh token; rows sharing family_id descend from one login by rotation
+CREATE TABLE refresh_tokens (
+                                jti CHAR(36) NOT NULL,
+                                family_id CHAR(36) NOT NULL,
+                                user_id BIGINT NOT NULL,
+                                access_jti CHAR(36) NOT NULL,
+                                issued_at DATETIME NOT NULL,
+                                expires_at DATETIME NOT NULL,
+                                rotated_at DATETIME NULL,
+                                revoked BOOLEAN NOT NULL DEFAULT FALSE,
+                                PRIMARY KEY (jti)
+);
+
+-- no FK to users: a deleted user's tokens stay revoked until they expire
+CREATE INDEX idx_rt_family ON refresh_tokens(family_id);
+CREATE INDEX idx_rt_user ON refresh_tokens(user_id);
+CREATE INDEX idx_rt_access ON refresh_tokens(access_jti);
+CREATE INDEX idx_rt_expires ON refresh_tokens(expires_at);
+
+-- token ids refused until the token would have expired anyway
+CREATE TABLE revoked_tokens (
+                                jti CHAR(36) NOT NULL,
+                                expires_at DATETIME NOT NULL,
+                                PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_revoked_expires ON revoked_tokens(expires_at);
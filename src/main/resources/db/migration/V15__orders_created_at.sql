@@ -0,0 +1,9 @@
+-- set once at creation; unlike submitted_date it never moves and is never null, so it can key the client history
+ALTER TABLE orders ADD COLUMN created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP AFTER client_id;
+
+-- submitted_date was stamped at creation and again on every submit: the closest value existing orders have
+UPDATE orders SET created_at = submitted_date WHERE submitted_date IS NOT NULL;
+
+-- the new index also backs fk_order_client, so it has to exist before the old one goes
+CREATE INDEX idx_orders_client_created ON orders(client_id, created_at, order_number);
+DROP INDEX idx_orders_client_submitted ON orders;
@@ -0,0 +1,19 @@
+-- one row per truck per day; the primary key is what makes concurrent claims safe
+CREATE TABLE truck_reservations (
+                                    truck_vin VARCHAR(64) NOT NULL,
+                                    reservation_date DATE NOT NULL,
+                                    delivery_id BIGINT NOT NULL,
+                                    PRIMARY KEY (truck_vin, reservation_date),
+                                    CONSTRAINT fk_tr_truck
+                                        FOREIGN KEY (truck_vin) REFERENCES trucks(vin),
+                                    CONSTRAINT fk_tr_delivery
+                                        FOREIGN KEY (delivery_id) REFERENCES deliveries(id)
+);
+
+CREATE INDEX idx_tr_delivery ON truck_reservations(delivery_id);
+
+INSERT INTO truck_reservations (truck_vin, reservation_date, delivery_id)
+SELECT dt.truck_id, d.scheduled_date, MIN(d.id)
+FROM delivery_trucks dt
+         JOIN deliveries d ON d.id = dt.delivery_id
+GROUP BY dt.truck_id, d.scheduled_date;
@@ -0,0 +1,8 @@
+CREATE TABLE job_watermarks (
+                                job_name VARCHAR(64) NOT NULL,
+                                run_date DATE NOT NULL,
+                                last_date DATE NOT NULL,
+                                last_id BIGINT NOT NULL,
+                                updated_at DATETIME NOT NULL,
+                                PRIMARY KEY (job_name)
+);
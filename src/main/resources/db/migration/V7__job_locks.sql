@@ -0,0 +1,8 @@
+CREATE TABLE job_locks (
+                           job_name VARCHAR(64) NOT NULL,
+                           owner VARCHAR(128) NOT NULL,
+                           acquired_at DATETIME(3) NOT NULL,
+                           locked_until DATETIME(3) NOT NULL,
+                           heartbeat_at DATETIME(3) NOT NULL,
+                           PRIMARY KEY (job_name)
+);
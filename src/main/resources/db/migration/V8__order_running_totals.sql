@@ -0,0 +1,9 @@
+ALTER TABLE orders
+    ADD COLUMN subtotal DECIMAL(19,2) NOT NULL DEFAULT 0.00;
+
+ALTER TABLE orders
+    ADD COLUMN total_volume BIGINT NOT NULL DEFAULT 0;
+
+UPDATE orders o
+SET subtotal = COALESCE((SELECT SUM(oi.price) FROM order_items oi WHERE oi.order_id = o.order_number), 0),
+    total_volume = COALESCE((SELECT SUM(oi.volume) FROM order_items oi WHERE oi.order_id = o.order_number), 0);
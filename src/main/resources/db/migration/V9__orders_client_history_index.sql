@@ -0,0 +1,2 @@
+-- serves the client order history keyset: client_id = ? ordered by (submitted_date, order_number) desc
+CREATE INDEX idx_orders_client_submitted ON orders(client_id, submitted_date, order_number);
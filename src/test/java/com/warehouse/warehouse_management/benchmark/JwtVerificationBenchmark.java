@@ -0,0 +1,64 @@
+package com.warehouse.warehouse_management.benchmark;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.service.Jwt;
+import com.warehouse.warehouse_management.service.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old path (key derived and parser built per call,
+ * token re-signed when serialised) against a shared parser and against {@link JwtVerifier} with its cache.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=JwtVerificationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private String token;
+    private JwtParser parser;
+    private JwtVerifier verifier;
+
+    @Setup
+    public void setup() {
+        JwtConfig config = new JwtConfig();
+        config.setSecret(SECRET);
+        verifier = new JwtVerifier(config);
+        parser = Jwts.parser().verifyWith(config.getSecretKey()).build();
+        token = Jwts.builder().subject("42").claim("email", "ann@example.com").claim("name", "Ann")
+                .claim("role", "CLIENT").issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(config.getSecretKey()).compact();
+    }
+
+    @Benchmark
+    public String legacy() {
+        var key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        return Jwts.builder().claims(claims).signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Jwt cachedVerifier() {
+        return verifier.verify(token);
+    }
+}
@@ -0,0 +1,73 @@
+package com.warehouse.warehouse_management.benchmark;
+
+import com.warehouse.warehouse_management.config.PricingConfig;
+import com.warehouse.warehouse_management.service.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repricing a 300-line order: the old BigDecimal/double formula against {@link PricingEngine}.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=PricingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final int LINES = 300;
+
+    private final PricingEngine engine = new PricingEngine(new PricingConfig());
+    private BigDecimal[] unitPrices;
+    private long[] unitCents;
+    private long[] qty;
+    private long[] stock;
+    private long[] out;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        unitPrices = new BigDecimal[LINES];
+        unitCents = new long[LINES];
+        qty = new long[LINES];
+        stock = new long[LINES];
+        out = new long[LINES];
+        for (int i = 0; i < LINES; i++) {
+            unitCents[i] = 1 + rnd.nextInt(500_000);
+            unitPrices[i] = BigDecimal.valueOf(unitCents[i], 2);
+            qty[i] = 1 + rnd.nextInt(300);
+            stock[i] = rnd.nextInt(60);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal legacy() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < LINES; i++) {
+            BigDecimal price;
+            if (qty[i] >= 100) price = unitPrices[i].multiply(BigDecimal.valueOf(0.9)).multiply(BigDecimal.valueOf(qty[i]));
+            else if (stock[i] < 20) price = unitPrices[i].multiply(BigDecimal.valueOf(1.02)).multiply(BigDecimal.valueOf(qty[i]));
+            else price = unitPrices[i].multiply(BigDecimal.valueOf(qty[i]));
+            subtotal = subtotal.add(price);
+        }
+        return subtotal.compareTo(BigDecimal.valueOf(10000)) >= 0 ? subtotal.multiply(BigDecimal.valueOf(0.95)) : subtotal;
+    }
+
+    @Benchmark
+    public long engine() {
+        return engine.orderTotalCents(engine.priceLines(unitCents, qty, stock, out));
+    }
+
+    @Benchmark
+    public void engineWithBoundary(Blackhole bh) {
+        for (int i = 0; i < LINES; i++) bh.consume(engine.linePrice(unitPrices[i], qty[i], stock[i]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.warehouse.warehouse_management.benchmark;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.entity.RevokedToken;
+import com.warehouse.warehouse_management.repository.RevokedTokenRepository;
+import com.warehouse.warehouse_management.service.TokenRevocations;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request revocation check with {@code revoked} ids loaded, for an id that is not revoked
+ * (the Bloom filter answers) and one that is (filter hit plus exact lookup). Add {@code -prof gc} to the
+ * arguments to confirm neither path allocates.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=TokenRevocationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int revoked;
+
+    private TokenRevocations revocations;
+    private String liveJti;
+    private String revokedJti;
+
+    @Setup
+    public void setup() {
+        LocalDateTime later = LocalDateTime.now().plusDays(1);
+        List<RevokedToken> rows = new ArrayList<>(revoked);
+        for (int i = 0; i < revoked; i++) rows.add(new RevokedToken(UUID.randomUUID().toString(), later));
+        RevokedTokenRepository repository = Mockito.mock(RevokedTokenRepository.class);
+        Mockito.when(repository.findAllByExpiresAtAfter(Mockito.any())).thenReturn(rows);
+
+        revocations = new TokenRevocations(repository, new JwtConfig());
+        revocations.reload();
+        liveJti = UUID.randomUUID().toString();
+        revokedJti = rows.get(rows.size() / 2).getJti();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocations.isRevoked(liveJti);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocations.isRevoked(revokedJti);
+    }
+}
@@ -0,0 +1,98 @@
+package com.warehouse.warehouse_management.config;
+
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.JobWatermark;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.JobWatermarkRepository;
+import com.warehouse.warehouse_management.service.DeliveryFulfillment;
+import com.warehouse.warehouse_management.service.JobLeaseManager;
+import com.warehouse.warehouse_management.service.TruckCalendar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryStatusSchedulerTest {
+
+    @Mock DeliveryRepository deliveries;
+    @Mock DeliveryFulfillment fulfillment;
+    @Mock JobWatermarkRepository watermarks;
+    @Mock TruckCalendar calendar;
+    @Mock PlatformTransactionManager transactionManager;
+    @Mock JobLeaseManager leases;
+
+    DeliveryConfig config = new DeliveryConfig();
+    DeliveryStatusScheduler scheduler;
+    LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        config.setFulfillmentBatchSize(2);
+        scheduler = new DeliveryStatusScheduler(deliveries, fulfillment, watermarks, calendar, config, transactionManager, leases);
+        lenient().when(leases.runExclusively(eq(DeliveryStatusScheduler.JOB), any())).thenAnswer(a -> {
+            ((Runnable) a.getArgument(1)).run();
+            return true;
+        });
+    }
+
+    @Test
+    void markFulfilled_pagesByKey_andFulfilsEachBatch() {
+        when(watermarks.findById(DeliveryStatusScheduler.JOB)).thenReturn(Optional.empty());
+        LocalDate start = LocalDate.of(1970, 1, 1);
+        when(deliveries.findDueAfter(eq(OrderStatus.UNDER_DELIVERY), eq(today), eq(start), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(new DueDelivery(1L, 11L, today.minusDays(1)), new DueDelivery(2L, 12L, today)));
+        when(deliveries.findDueAfter(eq(OrderStatus.UNDER_DELIVERY), eq(today), eq(today), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(new DueDelivery(5L, 15L, today)));
+        when(fulfillment.fulfil(any())).thenAnswer(a -> new DeliveryFulfillment.Result(((List<?>) a.getArgument(0)).size(), 0));
+
+        scheduler.markFulfilled();
+
+        verify(fulfillment, times(2)).fulfil(any());
+        verify(transactionManager, times(2)).commit(any());
+
+        ArgumentCaptor<JobWatermark> saved = ArgumentCaptor.forClass(JobWatermark.class);
+        verify(watermarks, times(2)).save(saved.capture());
+        assertThat(saved.getValue().getLastId()).isEqualTo(5L);
+        assertThat(saved.getValue().getRunDate()).isEqualTo(today);
+    }
+
+    @Test
+    void markFulfilled_resumesFromTodaysWatermark() {
+        JobWatermark mark = new JobWatermark();
+        mark.setJobName(DeliveryStatusScheduler.JOB);
+        mark.setRunDate(today);
+        mark.setLastDate(today.minusDays(3));
+        mark.setLastId(40L);
+        when(watermarks.findById(DeliveryStatusScheduler.JOB)).thenReturn(Optional.of(mark));
+        when(deliveries.findDueAfter(any(), any(), any(), any(), any(Limit.class))).thenReturn(List.of());
+
+        scheduler.markFulfilled();
+
+        verify(deliveries).findDueAfter(eq(OrderStatus.UNDER_DELIVERY), eq(today), eq(today.minusDays(3)), eq(40L), any(Limit.class));
+        verifyNoInteractions(fulfillment);
+        verify(calendar).evictBefore(today);
+    }
+
+    @Test
+    void markFulfilled_doesNothingWithoutLease() {
+        when(leases.runExclusively(eq(DeliveryStatusScheduler.JOB), any())).thenReturn(false);
+
+        scheduler.markFulfilled();
+
+        verifyNoInteractions(deliveries, fulfillment, watermarks, calendar);
+    }
+}
@@ -26,6 +26,8 @@ class AdminUserServiceImplTest {
     @Mock private UserRepository users;
     @Mock private UserMapper mapper;
     @Mock private PasswordEncoder encoder;
+    @Mock private RefreshTokens refreshTokens;
+    @Mock private UserCache userCache;
 
     @InjectMocks
     private AdminUserServiceImpl service;
@@ -151,6 +153,7 @@ class AdminUserServiceImplTest {
         assertThat(out.email()).isEqualTo("old@ex.com");
         verify(mapper).update(existing, req);
         verify(users, never()).existsByEmailIgnoreCase(anyString());
+        verify(userCache).invalidate(7L);
     }
 
     @Test
@@ -176,6 +179,8 @@ class AdminUserServiceImplTest {
 
         service.deleteUser(9L);
 
+        verify(refreshTokens).revokeAllForUser(9L);
+        verify(userCache).invalidate(9L);
         verify(users).deleteById(9L);
     }
 
@@ -0,0 +1,88 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryCompletionQueueTest {
+
+    @Mock DeliveryRepository deliveries;
+    @Mock DeliveryFulfillment fulfillment;
+    @Spy DeliveryConfig config = new DeliveryConfig();
+
+    @InjectMocks
+    DeliveryCompletionQueue queue;
+
+    @Test
+    void reload_queuesEveryPendingDelivery() {
+        when(deliveries.findAllWithStatus(OrderStatus.UNDER_DELIVERY)).thenReturn(List.of(
+                new DueDelivery(1L, 11L, LocalDate.now()),
+                new DueDelivery(2L, 12L, LocalDate.now().plusDays(3))));
+
+        queue.reload();
+
+        assertThat(queue.size()).isEqualTo(2);
+    }
+
+    @Test
+    void fire_fulfilsDueDelivery() {
+        DueDelivery due = new DueDelivery(1L, 11L, LocalDate.now().minusDays(1));
+        when(deliveries.findWithStatus(1L, OrderStatus.UNDER_DELIVERY)).thenReturn(Optional.of(due));
+
+        queue.fire(new DeliveryCompletionQueue.Due(1L, 0L));
+
+        verify(fulfillment).fulfil(List.of(due));
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void fire_requeuesDeliveryMovedToLaterDate() {
+        when(deliveries.findWithStatus(1L, OrderStatus.UNDER_DELIVERY))
+                .thenReturn(Optional.of(new DueDelivery(1L, 11L, LocalDate.now().plusDays(2))));
+
+        queue.fire(new DeliveryCompletionQueue.Due(1L, 0L));
+
+        verifyNoInteractions(fulfillment);
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fire_dropsAlreadyFulfilledDelivery_andRetriesOnFailure() {
+        when(deliveries.findWithStatus(1L, OrderStatus.UNDER_DELIVERY)).thenReturn(Optional.empty());
+        when(deliveries.findWithStatus(2L, OrderStatus.UNDER_DELIVERY))
+                .thenReturn(Optional.of(new DueDelivery(2L, 12L, LocalDate.now().minusDays(1))));
+        when(fulfillment.fulfil(any())).thenThrow(new IllegalStateException("db down"));
+
+        queue.fire(new DeliveryCompletionQueue.Due(1L, 0L));
+        assertThat(queue.size()).isZero();
+
+        queue.fire(new DeliveryCompletionQueue.Due(2L, 0L));
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void dueAt_readsCompletionTimeInTheConfiguredZone() {
+        config.setZone(ZoneId.of("Asia/Tokyo"));
+
+        assertThat(queue.dueAt(LocalDate.of(2026, 3, 2)))
+                .isEqualTo(ZonedDateTime.of(2026, 3, 2, 18, 0, 0, 0, ZoneId.of("Asia/Tokyo")).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,43 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.DueDelivery;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import com.warehouse.warehouse_management.repository.TruckRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryFulfillmentTest {
+
+    @Mock OrderRepository orders;
+    @Mock DeliveryRepository deliveries;
+    @Mock TruckRepository trucks;
+    @Mock TruckCalendar calendar;
+
+    @InjectMocks
+    DeliveryFulfillment fulfillment;
+
+    @Test
+    void fulfil_usesSetBasedUpdates() {
+        LocalDate today = LocalDate.now();
+        when(orders.transitionAll(List.of(11L, 12L), OrderStatus.UNDER_DELIVERY, OrderStatus.FULFILLED)).thenReturn(2);
+        when(deliveries.findInactiveTruckVins(List.of(1L, 2L))).thenReturn(List.of("VIN-A"));
+
+        var result = fulfillment.fulfil(List.of(new DueDelivery(1L, 11L, today), new DueDelivery(2L, 12L, today)));
+
+        assertThat(result).isEqualTo(new DeliveryFulfillment.Result(2, 1));
+        verify(trucks).activateAll(List.of("VIN-A"));
+        verify(calendar).setActive(List.of("VIN-A"), true);
+    }
+}
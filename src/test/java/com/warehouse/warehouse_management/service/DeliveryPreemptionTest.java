@@ -0,0 +1,114 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.TruckBooking;
+import com.warehouse.warehouse_management.entity.*;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.TruckReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryPreemptionTest {
+
+    @Mock DeliveryRepository deliveries;
+    @Mock TruckReservationRepository reservations;
+    @Mock TruckCalendar calendar;
+    @Spy DeliveryConfig config = new DeliveryConfig();
+
+    @InjectMocks
+    DeliveryPreemption preemption;
+
+    private LocalDate monday;
+
+    private static Truck truck(String vin, long cap) {
+        Truck t = new Truck();
+        t.setVin(vin);
+        t.setContainerVolume(cap);
+        return t;
+    }
+
+    private static Delivery delivery(long id, LocalDate date, Truck... trucks) {
+        Order o = new Order();
+        o.setOrderNumber(id);
+        o.setPriority(Priority.NORMAL);
+        Delivery d = new Delivery();
+        d.setId(id);
+        d.setOrder(o);
+        d.setScheduledDate(date);
+        d.getTrucks().addAll(List.of(trucks));
+        return d;
+    }
+
+    private static long total(List<Truck> pool) {
+        return pool.stream().mapToLong(Truck::getContainerVolume).sum();
+    }
+
+    @BeforeEach
+    void setUp() {
+        LocalDate d = LocalDate.now().plusDays(1);
+        while (d.getDayOfWeek() != DayOfWeek.MONDAY) d = d.plusDays(1);
+        monday = d;
+    }
+
+    @Test
+    void makeRoom_bumpsOnlyWhatIsNeeded_andCascadesToNearestFreeDay() {
+        Truck small = truck("S", 40L);
+        Truck big = truck("B", 100L);
+        Delivery d1 = delivery(1L, monday, small);
+        Delivery d2 = delivery(2L, monday, big);
+        when(deliveries.findAllByDateAndPriority(monday, Priority.NORMAL)).thenReturn(List.of(d1, d2));
+        // B is already booked on Tuesday, so its delivery lands on Wednesday
+        when(deliveries.findBookingsBetween(any(), any()))
+                .thenReturn(List.of(new TruckBooking(monday.plusDays(1), "B", Priority.NORMAL)));
+        when(deliveries.moveAll(any(), any(), any())).thenReturn(1);
+        when(reservations.countByDeliveryIdInAndIdReservationDate(List.of(2L), monday)).thenReturn(1L);
+        when(reservations.copyAll(any(), any(), any())).thenReturn(1);
+
+        List<Truck> pool = preemption.makeRoom(monday, List.of(), p -> total(p) >= 90L);
+
+        assertThat(pool).containsExactly(big);
+        verify(deliveries).moveAll(List.of(2L), monday, monday.plusDays(2));
+        verify(deliveries, times(1)).moveAll(any(), any(), any());
+        verify(calendar).move(monday, monday.plusDays(2), Set.of(big), Priority.NORMAL);
+        verify(reservations).releaseAll(List.of(2L), monday);
+    }
+
+    @Test
+    void makeRoom_failsWhenBumpingEverythingIsNotEnough() {
+        Delivery d1 = delivery(1L, monday, truck("S", 40L));
+        when(deliveries.findAllByDateAndPriority(monday, Priority.NORMAL)).thenReturn(List.of(d1));
+
+        assertThatThrownBy(() -> preemption.makeRoom(monday, List.of(), p -> total(p) >= 500L))
+                .isInstanceOf(BusinessRuleExceptions.class);
+        verify(deliveries, never()).moveAll(any(), any(), any());
+    }
+
+    @Test
+    void makeRoom_rejectsConcurrentChange() {
+        Delivery d1 = delivery(1L, monday, truck("S", 40L));
+        when(deliveries.findAllByDateAndPriority(monday, Priority.NORMAL)).thenReturn(List.of(d1));
+        when(deliveries.findBookingsBetween(any(), any())).thenReturn(List.of());
+        when(deliveries.moveAll(any(), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> preemption.makeRoom(monday, List.of(), p -> total(p) >= 40L))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessageContaining("concurrently");
+        verifyNoInteractions(calendar);
+    }
+}
@@ -0,0 +1,88 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.InventoryConfig;
+import com.warehouse.warehouse_management.dto.PendingStock;
+import com.warehouse.warehouse_management.entity.MovementKind;
+import com.warehouse.warehouse_management.repository.InventoryMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryLedgerTest {
+
+    @Mock InventoryMovementRepository movements;
+    @Mock ItemCatalog catalog;
+    @Mock JobLeaseManager leases;
+    @Mock PlatformTransactionManager transactionManager;
+
+    InventoryLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        InventoryConfig config = new InventoryConfig();
+        config.setCompactionChunkSize(2);
+        ledger = new InventoryLedger(movements, catalog, leases, transactionManager, config);
+        when(movements.findPendingTotals()).thenReturn(List.of(new PendingStock(1L, -3L, -3L)));
+        ledger.reload();
+    }
+
+    @Test
+    void record_appendsPendingRowsAndGrowsTheTail() {
+        ledger.record(MovementKind.RECEIPT, null, new long[]{1L, 2L}, new long[]{10L, 4L}, new long[2]);
+
+        verify(movements).append(MovementKind.RECEIPT, null, new long[]{1L, 2L}, new long[]{10L, 4L}, new long[2], false);
+        assertThat(ledger.pendingQuantity(1L)).isEqualTo(7L);
+        assertThat(ledger.pendingQuantity(2L)).isEqualTo(4L);
+        verify(catalog).invalidate(new long[]{1L, 2L});
+    }
+
+    @Test
+    void fold_movesTheTailIntoTheSnapshotUntilNothingIsLeft() {
+        when(movements.fold(List.of(1L), 2)).thenReturn(List.of(new PendingStock(1L, -3L, -3L)), List.of());
+
+        int changed = ledger.fold(List.of(1L));
+
+        assertThat(changed).isEqualTo(1);
+        assertThat(ledger.pendingQuantity(1L)).isZero();
+        verifyNoInteractions(catalog); // cached items carry snapshot plus pending, which the fold leaves as it was
+    }
+
+    @Test
+    void reload_evictsOnlyItemsWhosePendingTotalMoved() {
+        // another node folded item 1 and received item 4; item 2 is unchanged
+        when(movements.findPendingTotals()).thenReturn(List.of(new PendingStock(1L, -3L, -3L), new PendingStock(2L, 6L, 0L)));
+        ledger.reload();
+        when(movements.findPendingTotals()).thenReturn(List.of(new PendingStock(2L, 6L, 0L), new PendingStock(4L, 9L, 0L)));
+        ledger.reload();
+
+        verify(catalog).invalidate(Set.of(2L));
+        verify(catalog).invalidate(Set.of(1L, 4L));
+        assertThat(ledger.pendingQuantity(4L)).isEqualTo(9L);
+    }
+
+    @Test
+    void compact_foldsChunksUntilAChunkComesBackEmpty() {
+        when(movements.fold(eq(List.of()), anyInt())).thenReturn(
+                List.of(new PendingStock(1L, -3L, -3L), new PendingStock(2L, 5L, 0L)),
+                List.of(new PendingStock(3L, 1L, 0L)),
+                List.of());
+
+        int touched = ledger.compact();
+
+        assertThat(touched).isEqualTo(3);
+        assertThat(ledger.pendingQuantity(1L)).isZero();
+        assertThat(ledger.pendingQuantity(2L)).isEqualTo(-5L);
+        verify(movements, times(3)).fold(List.of(), 2);
+    }
+}
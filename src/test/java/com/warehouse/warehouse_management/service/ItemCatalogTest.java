@@ -0,0 +1,93 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.ItemCatalogConfig;
+import com.warehouse.warehouse_management.entity.Item;
+import com.warehouse.warehouse_management.mapper.ItemMapperImpl;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemCatalogTest {
+
+    @Mock ItemRepository items;
+
+    ItemCatalogConfig config = new ItemCatalogConfig();
+    ItemCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        config.setMaxEntries(2);
+        catalog = new ItemCatalog(items, new ItemMapperImpl(), config);
+    }
+
+    private static Item item(long id, long qty) {
+        Item it = new Item();
+        it.setId(id);
+        it.setName("Item-" + id);
+        it.setQuantity(qty);
+        it.setUnitPrice(BigDecimal.ONE);
+        it.setPackageVolume(1L);
+        return it;
+    }
+
+    @Test
+    void find_readsThroughOnce_thenServesFromMemory() {
+        when(items.findById(1L)).thenReturn(Optional.of(item(1L, 5L)));
+
+        assertThat(catalog.find(1L)).get().extracting(d -> d.quantity()).isEqualTo(5L);
+        assertThat(catalog.find(1L)).isPresent();
+
+        verify(items, times(1)).findById(1L);
+        assertThat(catalog.stats().hits()).isEqualTo(1);
+        assertThat(catalog.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_dropsEntryAndListing_andBlocksLoadsThatStartedBefore() {
+        when(items.findById(1L)).thenReturn(Optional.of(item(1L, 5L)));
+        when(items.findAll()).thenReturn(List.of(item(1L, 5L)));
+        catalog.find(1L);
+        catalog.list();
+
+        // a read that races the write: it loads the old row, but the commit's eviction lands first
+        when(items.findById(1L)).thenAnswer(a -> {
+            catalog.invalidate(List.of(1L)); // no transaction here, so it applies at once
+            return Optional.of(item(1L, 5L));
+        });
+        catalog.invalidate(List.of(1L));
+        catalog.find(1L);
+
+        when(items.findById(1L)).thenReturn(Optional.of(item(1L, 2L)));
+        assertThat(catalog.find(1L)).get().extracting(d -> d.quantity()).isEqualTo(2L);
+        catalog.list();
+        verify(items, times(2)).findAll();
+    }
+
+    @Test
+    void staysWithinMaxEntries_evictingLeastRecentlyUsed() {
+        when(items.findAllById(any())).thenAnswer(a -> {
+            List<Long> ids = a.getArgument(0);
+            return ids.stream().map(id -> item(id, 1L)).toList();
+        });
+        catalog.findAll(List.of(1L, 2L));
+        catalog.findAll(List.of(1L));   // touch 1 so 2 is the eldest
+        catalog.findAll(List.of(3L));
+
+        assertThat(catalog.stats().size()).isEqualTo(2);
+        assertThat(catalog.stats().evictions()).isEqualTo(1);
+        catalog.findAll(List.of(1L, 3L));
+        assertThat(catalog.stats().hits()).isEqualTo(3);
+    }
+}
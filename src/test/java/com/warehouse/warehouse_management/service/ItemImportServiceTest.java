@@ -0,0 +1,110 @@
+package com.warehouse.warehouse_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.warehouse_management.config.ItemImportConfig;
+import com.warehouse.warehouse_management.dto.DataFormat;
+import com.warehouse.warehouse_management.dto.ItemDto;
+import com.warehouse.warehouse_management.dto.ItemImportResult;
+import com.warehouse.warehouse_management.entity.IdSequences;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceTest {
+
+    @Mock ItemRepository items;
+    @Mock PooledIds ids;
+    @Mock ItemCatalog catalog;
+    @Mock AvailableToPromise atp;
+    @Mock InventoryLedger ledger;
+    @Mock PlatformTransactionManager transactionManager;
+
+    ItemImportService service;
+
+    @BeforeEach
+    void setUp() {
+        ItemImportConfig config = new ItemImportConfig();
+        config.setBatchSize(2);
+        service = new ItemImportService(items, ids, catalog, atp, ledger, transactionManager, new ObjectMapper(), config);
+    }
+
+    private static ByteArrayInputStream body(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importItems_csv_writesFullBatchesAndReportsBadRows() {
+        when(items.findReservedByNameForUpdate(anyCollection())).thenReturn(Map.of());
+        when(ids.allocate(eq(IdSequences.ITEMS), anyInt())).thenReturn(101L, 103L);
+        String csv = """
+                volume,itemName,itemId,price,quantity
+                4,"Bolts, M8",,1.50,100
+                2,Nut,,0.20,x
+                1,Washer,,0.05,500
+
+                3,"Say ""hi"\"",,2.00,7
+                """;
+
+        ItemImportResult r = service.importItems(DataFormat.CSV, body(csv));
+
+        assertThat(r.rows()).isEqualTo(4);
+        assertThat(r.upserted()).isEqualTo(3);
+        assertThat(r.failed()).isEqualTo(1);
+        assertThat(r.errors()).singleElement().satisfies(e -> {
+            assertThat(e.line()).isEqualTo(3);
+            assertThat(e.message()).isEqualTo("quantity is not a whole number: x");
+        });
+
+        ArgumentCaptor<List<ItemDto>> rows = ArgumentCaptor.forClass(List.class);
+        verify(items).upsertAll(rows.capture(), eq(101L));
+        verify(items).upsertAll(rows.capture(), eq(103L));
+        assertThat(rows.getAllValues().get(0)).extracting(ItemDto::itemName).containsExactly("Bolts, M8", "Washer");
+        assertThat(rows.getAllValues().get(0).get(0).price()).isEqualByComparingTo(new BigDecimal("1.50"));
+        assertThat(rows.getAllValues().get(1)).extracting(ItemDto::itemName).containsExactly("Say \"hi\"");
+        verify(ids).allocate(IdSequences.ITEMS, 2);
+        verify(ids).allocate(IdSequences.ITEMS, 1);
+        verify(catalog).invalidateAll();
+        verify(atp).reload();
+    }
+
+    @Test
+    void importItems_ndjson_keepsReservedStockAndReportsMalformedLines() {
+        Map<String, Long> reserved = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        reserved.put("Bolt", 30L);
+        when(items.findReservedByNameForUpdate(anyCollection())).thenReturn(reserved);
+        when(ids.allocate(eq(IdSequences.ITEMS), anyInt())).thenReturn(1L);
+        String ndjson = """
+                {"itemName":"bolt","quantity":10,"price":1.00,"volume":1}
+                {"itemName":"Nut","quantity":5,"price":0.10,"volume":0}
+                {"itemName":"Nut","quantity":5,
+                """;
+
+        ItemImportResult r = service.importItems(DataFormat.NDJSON, body(ndjson));
+
+        assertThat(r.rows()).isEqualTo(3);
+        assertThat(r.upserted()).isZero();
+        assertThat(r.failed()).isEqualTo(3);
+        assertThat(r.errors()).extracting(e -> e.line()).containsExactly(2L, 3L, 1L);
+        assertThat(r.errors().get(0).message()).isEqualTo("volume must be positive");
+        assertThat(r.errors().get(2).message()).contains("30 units reserved");
+        verify(items).upsertAll(List.of(), 1L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JobLeaseConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+/** Two lease managers ("nodes") sharing one H2 database in MySQL mode. */
+class JobLeaseManagerTest {
+
+    private static final String JOB = "test-job";
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void schema() throws Exception {
+        var ds = new DriverManagerDataSource("jdbc:h2:mem:leases;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false", "sa", "");
+        try (Connection c = ds.getConnection()) {
+            ScriptUtils.executeSqlScript(c, new ClassPathResource("db/migration/V7__job_locks.sql"));
+        }
+        jdbc = new JdbcTemplate(ds);
+    }
+
+    @BeforeEach
+    void clean() {
+        jdbc.update("delete from job_locks");
+    }
+
+    private static JobLeaseManager node(String owner, int minHoldSeconds) {
+        JobLeaseConfig config = new JobLeaseConfig();
+        config.setOwner(owner);
+        config.setMinHoldSeconds(minHoldSeconds);
+        return new JobLeaseManager(jdbc, config);
+    }
+
+    @Test
+    void onlyOneNodeRunsWhileLeaseIsHeld() {
+        JobLeaseManager a = node("node-a", 0);
+        JobLeaseManager b = node("node-b", 0);
+        AtomicBoolean bRan = new AtomicBoolean();
+
+        boolean aRan = a.runExclusively(JOB, () -> bRan.set(b.runExclusively(JOB, () -> {})));
+
+        assertThat(aRan).isTrue();
+        assertThat(bRan).isFalse();
+        assertThat(b.runExclusively(JOB, () -> {})).isTrue();
+    }
+
+    @Test
+    void finishedRunKeepsLeaseForMinHold() {
+        JobLeaseManager a = node("node-a", 60);
+        JobLeaseManager b = node("node-b", 60);
+
+        assertThat(a.runExclusively(JOB, () -> {})).isTrue();
+        assertThat(b.runExclusively(JOB, () -> {})).isFalse();
+    }
+
+    @Test
+    void zeroMinHoldFreesLeaseAsSoonAsRunEnds() {
+        JobLeaseManager a = node("node-a", 60);
+        JobLeaseManager b = node("node-b", 60);
+
+        assertThat(a.runExclusively(JOB, 0, () -> {})).isTrue();
+        assertThat(b.runExclusively(JOB, 0, () -> {})).isTrue();
+        assertThat(b.runExclusively(JOB, () -> {})).isTrue();
+        assertThat(a.runExclusively(JOB, 0, () -> {})).isFalse();
+    }
+
+    @Test
+    void deadHolderIsTakenOverOnceLeaseExpires() {
+        JobLeaseManager a = node("node-a", 0);
+        JobLeaseManager b = node("node-b", 0);
+        assertThat(a.tryAcquire(JOB)).isTrue(); // a "dies" without releasing or heart-beating
+        assertThat(b.tryAcquire(JOB)).isFalse();
+
+        jdbc.update("update job_locks set locked_until = TIMESTAMPADD(SECOND, -1, LOCALTIMESTAMP(3))");
+
+        assertThat(b.tryAcquire(JOB)).isTrue();
+        assertThat(jdbc.queryForObject("select owner from job_locks where job_name = ?", String.class, JOB))
+                .isEqualTo("node-b");
+        assertThat(a.heartbeat(JOB)).isFalse();
+        assertThat(b.heartbeat(JOB)).isTrue();
+    }
+}
@@ -0,0 +1,79 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    JwtConfig config;
+    JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        config = new JwtConfig();
+        config.setSecret("0123456789abcdef0123456789abcdef-test-secret");
+        config.setVerifiedTokenCacheSize(2);
+        verifier = new JwtVerifier(config);
+    }
+
+    private String token(String subject, long expiresInMillis) {
+        return Jwts.builder().subject(subject).claim("role", "CLIENT")
+                .expiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(config.getSecretKey()).compact();
+    }
+
+    @Test
+    void verify_cachesTheResultAndKeepsTheOriginalCompactForm() {
+        String t = token("7", 60_000);
+
+        Jwt first = verifier.verify(t);
+        Jwt second = verifier.verify(t);
+
+        assertThat(first).isNotNull().isSameAs(second);
+        assertThat(first.getUserId()).isEqualTo(7L);
+        assertThat(first.toString()).isEqualTo(t);
+        assertThat(verifier.size()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_borrowedSignatureOnAnotherPayload_isRejected() {
+        String good = token("7", 60_000);
+        String other = token("8", 60_000);
+        verifier.verify(good);
+        String[] g = good.split("\\.");
+        String[] o = other.split("\\.");
+
+        assertThat(verifier.verify(o[0] + "." + o[1] + "." + g[2])).isNull();
+        assertThat(verifier.verify("not-a-token")).isNull();
+    }
+
+    @Test
+    void verify_expiredTokens_areNotServedAndFullCacheStopsGrowing() {
+        assertThat(verifier.verify(token("1", -1_000))).isNull();
+
+        verifier.verify(token("1", 60_000));
+        verifier.verify(token("2", 60_000));
+        Jwt third = verifier.verify(token("3", 60_000));
+
+        assertThat(third).isNotNull();
+        assertThat(verifier.size()).isEqualTo(2);
+    }
+
+    @Test
+    void verify_afterTheSecretChanges_rejectsOldTokensAndForgetsTheCache() {
+        String old = token("7", 60_000);
+        assertThat(verifier.verify(old)).isNotNull();
+
+        config.setSecret("fedcba9876543210fedcba9876543210-new-secret");
+
+        assertThat(verifier.verify(old)).isNull();
+        assertThat(verifier.size()).isZero();
+        assertThat(verifier.verify(token("8", 60_000))).isNotNull();
+    }
+}
@@ -1,5 +1,7 @@
 package com.warehouse.warehouse_management.service;
 
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.config.PricingConfig;
 import com.warehouse.warehouse_management.dto.*;
 import com.warehouse.warehouse_management.entity.*;
 import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
@@ -7,12 +9,12 @@ import com.warehouse.warehouse_management.exceptions.ItemNotDeletableException;
 import com.warehouse.warehouse_management.exceptions.ItemNotFoundException;
 import com.warehouse.warehouse_management.mapper.ItemMapper;
 import com.warehouse.warehouse_management.mapper.OrderMapper;
-import com.warehouse.warehouse_management.mapper.OrderSummaryMapper;
 import com.warehouse.warehouse_management.mapper.TruckMapper;
 import com.warehouse.warehouse_management.repository.DeliveryRepository;
 import com.warehouse.warehouse_management.repository.ItemRepository;
 import com.warehouse.warehouse_management.repository.OrderRepository;
 import com.warehouse.warehouse_management.repository.TruckRepository;
+import com.warehouse.warehouse_management.repository.TruckReservationRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -21,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -33,9 +36,20 @@ class ManagerServiceImplTest {
     @Mock ItemRepository items;
     @Mock TruckRepository trucks;
     @Mock DeliveryRepository deliveries;
+    @Mock TruckReservationRepository reservations;
+    @Mock TruckSelector truckSelector;
+    @Mock TruckCalendar calendar;
+    @Spy DeliveryConfig deliveryConfig = new DeliveryConfig();
+    @Mock UrgentOrderQueue urgentQueue;
+    @Mock DeliveryPreemption preemption;
+    @Mock DeliveryCompletionQueue completions;
+    @Spy PricingEngine pricing = new PricingEngine(new PricingConfig());
+    @Mock StockReservations stock;
+    @Mock AvailableToPromise atp;
+    @Mock ItemCatalog catalog;
+    @Mock InventoryLedger ledger;
 
     @Mock OrderMapper orderMapper;
-    @Mock OrderSummaryMapper orderSummaryMapper;
     @Mock ItemMapper itemMapper;
     @Mock TruckMapper truckMapper;
 
@@ -92,30 +106,26 @@ class ManagerServiceImplTest {
 
     // ---------- Orders ----------
     @Test
-    void listAllOrders_nullStatus_usesFindAllOrdered() {
-        var o1 = orderWithStatus(OrderStatus.APPROVED);
-        when(orders.findAllByOrderBySubmittedDateDesc()).thenReturn(List.of(o1));
-        when(orderSummaryMapper.toSummary(o1)).thenReturn(mock(OrderSummaryResponse.class));
-
-        var out = service.listAllOrders(null);
-
-        assertThat(out).hasSize(1);
-        verify(orders).findAllByOrderBySubmittedDateDesc();
-        verify(orders, never()).findAllByStatusOrderBySubmittedDateDesc(any());
-    }
-
-    @Test
-    void listAllOrders_withStatus_usesFindByStatusOrdered() {
-        var o1 = orderWithStatus(OrderStatus.AWAITING_APPROVAL);
-        when(orders.findAllByStatusOrderBySubmittedDateDesc(OrderStatus.AWAITING_APPROVAL))
-                .thenReturn(List.of(o1));
-        when(orderSummaryMapper.toSummary(o1)).thenReturn(mock(OrderSummaryResponse.class));
-
-        var out = service.listAllOrders(OrderStatus.AWAITING_APPROVAL);
-
-        assertThat(out).hasSize(1);
-        verify(orders).findAllByStatusOrderBySubmittedDateDesc(OrderStatus.AWAITING_APPROVAL);
-        verify(orders, never()).findAllByOrderBySubmittedDateDesc();
+    void listAllOrders_firstPage_oneProjectionQuery_withNextCursor() {
+        var filter = new OrderSummaryFilter(OrderStatus.AWAITING_APPROVAL, null, null, null);
+        LocalDateTime at = LocalDateTime.of(2026, 3, 2, 10, 0);
+        var rows = List.of(
+                new OrderSummaryResponse(12L, "Ann Lee", OrderStatus.AWAITING_APPROVAL, Priority.NORMAL, at.plusHours(1)),
+                new OrderSummaryResponse(9L, "Bo Kim", OrderStatus.AWAITING_APPROVAL, Priority.URGENT, at),
+                new OrderSummaryResponse(4L, "Cy Dee", OrderStatus.AWAITING_APPROVAL, Priority.NORMAL, at));
+        when(orders.findSummaries(eq(filter), any(), eq(Long.MAX_VALUE), eq(3))).thenReturn(rows);
+
+        var out = service.listAllOrders(filter, null, 2);
+
+        assertThat(out.items()).containsExactly(rows.get(0), rows.get(1));
+        assertThat(out.next()).isNotNull();
+        verify(orders, never()).findAll();
+
+        when(orders.findSummaries(filter, at, 9L, 3)).thenReturn(List.of(rows.get(2)));
+        var second = service.listAllOrders(filter, out.next(), 2);
+
+        assertThat(second.items()).containsExactly(rows.get(2));
+        assertThat(second.next()).isNull();
     }
 
     @Test
@@ -146,6 +156,20 @@ class ManagerServiceImplTest {
         var out = service.approveOrder(1L);
         assertThat(o.getStatus()).isEqualTo(OrderStatus.APPROVED);
         assertThat(out).isNotNull();
+        verify(stock).reserve(o);
+    }
+
+    @Test
+    void approveOrder_stockShort_staysAwaitingApproval() {
+        Order o = orderWithStatus(OrderStatus.AWAITING_APPROVAL);
+        when(orders.findById(1L)).thenReturn(Optional.of(o));
+        doThrow(new BusinessRuleExceptions("Insufficient stock for items: 3 (Bolt)")).when(stock).reserve(o);
+
+        assertThatThrownBy(() -> service.approveOrder(1L))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessageContaining("3 (Bolt)");
+        assertThat(o.getStatus()).isEqualTo(OrderStatus.AWAITING_APPROVAL);
+        verify(urgentQueue, never()).approved(any());
     }
 
     @Test
@@ -185,20 +209,26 @@ class ManagerServiceImplTest {
     void createItem_mapsAndSaves() {
         var dtoIn = mock(ItemDto.class);
         var entity = new Item();
+        entity.setQuantity(5L);
         when(itemMapper.toEntity(dtoIn)).thenReturn(entity);
-        when(items.save(entity)).thenReturn(entity);
-        var dtoOut = mock(ItemDto.class);
+        when(items.save(entity)).thenAnswer(a -> {
+            entity.setId(1L);
+            return entity;
+        });
+        var dtoOut = new ItemDto(1L, "Box", 5L, BigDecimal.ONE, 2L, null);
         when(itemMapper.toDto(entity)).thenReturn(dtoOut);
 
         var out = service.createItem(dtoIn);
 
-        assertThat(out).isSameAs(dtoOut);
+        assertThat(out).isEqualTo(dtoOut.withAvailable(5L));
         verify(items).save(entity);
+        verify(atp).itemSaved(entity);
+        verify(catalog).invalidate(List.of(1L));
     }
 
     @Test
     void updateItem_notFound_throws() {
-        when(items.findById(7L)).thenReturn(Optional.empty());
+        when(items.findByIdForUpdate(7L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.updateItem(7L, mock(ItemDto.class)))
                 .isInstanceOf(BusinessRuleExceptions.class)
                 .hasMessageContaining("Item not found");
@@ -206,13 +236,31 @@ class ManagerServiceImplTest {
 
     @Test
     void listItems_mapsAll() {
-        var i1 = new Item(); var i2 = new Item();
-        when(items.findAll()).thenReturn(List.of(i1, i2));
-        when(itemMapper.toDto(i1)).thenReturn(mock(ItemDto.class));
-        when(itemMapper.toDto(i2)).thenReturn(mock(ItemDto.class));
+        var box = new ItemDto(1L, "Box", 12L, BigDecimal.ONE, 1L, null);
+        var crate = new ItemDto(2L, "Crate", 4L, BigDecimal.ONE, 1L, null);
+        when(catalog.list()).thenReturn(List.of(box, crate));
+        when(atp.available(1L)).thenReturn(7L);
+        when(atp.available(2L)).thenReturn(4L);
 
         var out = service.listItems();
-        assertThat(out).hasSize(2);
+        assertThat(out).extracting(ItemDto::quantity).containsExactly(12L, 4L);
+        assertThat(out).extracting(ItemDto::available).containsExactly(7L, 4L);
+        verifyNoInteractions(items);
+    }
+
+    @Test
+    void receiveStock_appendsPendingReceiptWithoutTouchingTheItemRow() {
+        var box = new ItemDto(1L, "Box", 10L, BigDecimal.ONE, 1L, null);
+        when(catalog.find(1L)).thenReturn(Optional.of(box));
+        when(atp.available(1L)).thenReturn(6L);
+
+        var out = service.receiveStock(1L, 5L);
+
+        assertThat(out.quantity()).isEqualTo(15L);
+        assertThat(out.available()).isEqualTo(11L);
+        verify(ledger).record(MovementKind.RECEIPT, null, new long[]{1L}, new long[]{5L}, new long[1]);
+        verify(atp).adjust(new long[]{1L}, new long[]{5L}, 1);
+        verifyNoInteractions(items);
     }
 
     @Test
@@ -287,6 +335,106 @@ class ManagerServiceImplTest {
     }
 
     // ---------- Delivery ----------
+    @Test
+    void scheduleDelivery_truckClaimedConcurrently_reselectsWithoutIt() {
+        LocalDate date = nextWeekdayFrom(LocalDate.now().plusDays(1));
+        Order o = orderWithStatus(OrderStatus.APPROVED);
+        o.setOrderNumber(5L);
+        o.setPriority(Priority.NORMAL);
+        o.setTotal(BigDecimal.TEN);
+        o.getItems().add(oi(5L, newItem(5L, "Box", 10L, 5L, BigDecimal.ONE), 2L, 50L));
+        o.setTotalVolume(50L);
+
+        Truck a = truck("VIN-A", true, 100L);
+        Truck b = truck("VIN-B", true, 80L);
+        a.setLicensePlate("AA-100");
+        when(orders.findById(5L)).thenReturn(Optional.of(o));
+        when(trucks.findFreeTrucksOn(eq(date), any())).thenReturn(List.of(a, b));
+        when(truckSelector.select(any(), anyLong())).thenAnswer(inv -> {
+            long[] caps = inv.getArgument(0);
+            int best = 0;
+            for (int i = 1; i < caps.length; i++) if (caps[i] < caps[best]) best = i;
+            return new TruckSelection(new int[]{best}, caps[best], true, 0, 0);
+        });
+        when(reservations.claim(any(), eq(date), eq(List.of("VIN-B")))).thenReturn(0);
+        when(reservations.findTakenByOthers(eq(date), eq(List.of("VIN-B")), any())).thenReturn(List.of("VIN-B"));
+        when(reservations.claim(any(), eq(date), eq(List.of("VIN-A")))).thenReturn(1);
+
+        var out = service.scheduleDelivery(5L, date);
+
+        assertThat(out.truckPlates()).containsExactly("AA-100");
+        verify(stock).consume(o);
+        assertThat(o.getStatus()).isEqualTo(OrderStatus.UNDER_DELIVERY);
+        verify(reservations).release(any(), eq(date));
+        verify(trucks, times(1)).findFreeTrucksOn(eq(date), any());
+    }
+
+    @Test
+    void scheduleDelivery_stockTakenConcurrently_rejectsWithTheShortage() {
+        LocalDate date = nextWeekdayFrom(LocalDate.now().plusDays(1));
+        Order o = orderWithStatus(OrderStatus.APPROVED);
+        o.setOrderNumber(5L);
+        o.setPriority(Priority.NORMAL);
+        o.getItems().add(oi(5L, newItem(3L, "Bolt", 10L, 1L, BigDecimal.ONE), 2L, 2L));
+        o.setTotalVolume(2L);
+
+        when(orders.findById(5L)).thenReturn(Optional.of(o));
+        when(trucks.findFreeTrucksOn(eq(date), any())).thenReturn(List.of(truck("VIN-A", true, 100L)));
+        when(truckSelector.select(any(), anyLong())).thenReturn(new TruckSelection(new int[]{0}, 100L, true, 0, 0));
+        when(reservations.claim(any(), eq(date), any())).thenReturn(1);
+        when(stock.consume(o)).thenReturn("Insufficient stock for items: 3 (Bolt)");
+
+        assertThatThrownBy(() -> service.scheduleDelivery(5L, date))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessage("Insufficient stock for items: 3 (Bolt)");
+        verify(trucks, never()).saveAll(any());
+        assertThat(o.getStatus()).isEqualTo(OrderStatus.APPROVED);
+    }
+
+    @Test
+    void scheduleBatch_packsUrgentFirst_andReportsEveryOrder() {
+        LocalDate date = nextWeekdayFrom(LocalDate.now().plusDays(1));
+
+        Order normal = orderWithStatus(OrderStatus.APPROVED);
+        normal.setOrderNumber(1L);
+        normal.setPriority(Priority.NORMAL);
+        normal.setTotal(BigDecimal.TEN);
+        normal.getItems().add(oi(1L, newItem(1L, "Box", 10L, 5L, BigDecimal.ONE), 2L, 50L));
+        normal.setTotalVolume(50L);
+
+        Order urgent = orderWithStatus(OrderStatus.APPROVED);
+        urgent.setOrderNumber(2L);
+        urgent.setPriority(Priority.URGENT);
+        urgent.setTotal(BigDecimal.TEN);
+        Item crate = newItem(2L, "Crate", 10L, 5L, BigDecimal.ONE);
+        urgent.getItems().add(oi(2L, crate, 3L, 50L));
+        urgent.setTotalVolume(50L);
+
+        when(orders.findAllByOrderNumberIn(any())).thenReturn(List.of(normal, urgent));
+        when(urgentQueue.snapshot()).thenReturn(new TreeSet<>(List.of(2L)));
+        when(trucks.findFreeTrucksOn(eq(date), any())).thenReturn(List.of(truck("VIN-A", true, 100L)));
+        when(reservations.claim(any(), eq(date), any())).thenAnswer(a -> ((Collection<?>) a.getArgument(2)).size());
+        when(truckSelector.select(any(), anyLong())).thenAnswer(a -> {
+            long[] caps = a.getArgument(0);
+            return caps.length == 0
+                    ? TruckSelection.none(true, 0, 0)
+                    : new TruckSelection(new int[]{0}, caps[0], true, 0, 0);
+        });
+
+        var out = service.scheduleBatch(new LinkedHashSet<>(List.of(1L, 2L, 3L)), date, date);
+
+        assertThat(out.scheduled()).isEqualTo(1);
+        assertThat(out.outcomes()).extracting(BatchScheduleOutcome::orderNumber).containsExactly(1L, 2L, 3L);
+        assertThat(out.outcomes().get(1).scheduled()).isTrue();
+        assertThat(out.outcomes().get(0).message()).contains("No truck capacity");
+        assertThat(out.outcomes().get(2).message()).contains("Order not found");
+        assertThat(urgent.getStatus()).isEqualTo(OrderStatus.UNDER_DELIVERY);
+        verify(stock).consume(urgent);
+        verify(stock, never()).consume(normal);
+        verify(trucks, times(1)).findFreeTrucksOn(eq(date), any());
+    }
+
+
 //    @Test
 //    void scheduleDelivery_happyPath_decrementsStock_andSetsStatus() {
 //        Order o = orderWithStatus(OrderStatus.APPROVED);
@@ -0,0 +1,87 @@
+package com.warehouse.warehouse_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.warehouse.warehouse_management.dto.DataFormat;
+import com.warehouse.warehouse_management.dto.OrderExportLine;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    @Mock OrderRepository orders;
+    @Mock PlatformTransactionManager transactionManager;
+
+    OrderExportService service;
+    AtomicBoolean closed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new OrderExportService(orders, transactionManager, mapper);
+    }
+
+    private Stream<OrderExportLine> rows() {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 2, 10, 0);
+        return Stream.of(
+                new OrderExportLine(7L, "Ann \"A\" Lee", OrderStatus.FULFILLED, Priority.NORMAL, at,
+                        new BigDecimal("20.00"), 1L, "Bolts, M8", 2L, new BigDecimal("20.00"), 4L),
+                new OrderExportLine(8L, "Bo Kim", OrderStatus.FULFILLED, Priority.URGENT, at,
+                        null, null, null, null, null, null)
+        ).onClose(() -> closed.set(true));
+    }
+
+    @Test
+    void export_csv_quotesFieldsAndClosesTheStream() {
+        when(orders.streamExport(OrderStatus.FULFILLED, LocalDate.of(2026, 3, 1).atStartOfDay(),
+                LocalDate.of(2026, 4, 1).atStartOfDay())).thenReturn(rows());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long n = service.export(DataFormat.CSV, OrderStatus.FULFILLED,
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), out);
+
+        assertThat(n).isEqualTo(2);
+        assertThat(closed).isTrue();
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                String.join(",", OrderExportService.CSV_HEADER),
+                "7,\"Ann \"\"A\"\" Lee\",FULFILLED,NORMAL,2026-03-02T10:00,20.00,1,\"Bolts, M8\",2,20.00,4",
+                "8,Bo Kim,FULFILLED,URGENT,2026-03-02T10:00,,,,,,");
+    }
+
+    @Test
+    void export_ndjson_writesOneObjectPerLine() {
+        when(orders.streamExport(null, null, null)).thenReturn(rows());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(DataFormat.NDJSON, null, null, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"orderNumber\":7,\"clientName\":\"Ann \\\"A\\\" Lee\",\"status\":\"FULFILLED\",\"priority\":\"NORMAL\","
+                        + "\"submittedDate\":\"2026-03-02T10:00:00\",\"total\":20.00,\"itemId\":1,\"itemName\":\"Bolts, M8\","
+                        + "\"requestedQty\":2,\"price\":20.00,\"volume\":4}\n"
+                        + "{\"orderNumber\":8,\"clientName\":\"Bo Kim\",\"status\":\"FULFILLED\",\"priority\":\"URGENT\","
+                        + "\"submittedDate\":\"2026-03-02T10:00:00\",\"total\":null,\"itemId\":null,\"itemName\":null,"
+                        + "\"requestedQty\":null,\"price\":null,\"volume\":null}\n");
+        assertThat(closed).isTrue();
+    }
+}
@@ -0,0 +1,226 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.PricingConfig;
+import com.warehouse.warehouse_management.dto.CursorPage;
+import com.warehouse.warehouse_management.dto.ItemDto;
+import com.warehouse.warehouse_management.dto.LineItemOperation;
+import com.warehouse.warehouse_management.dto.LineItemOperation.Op;
+import com.warehouse.warehouse_management.entity.*;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import com.warehouse.warehouse_management.repository.OrderItemRepository;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import com.warehouse.warehouse_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceImplTest {
+
+    @Mock OrderRepository orders;
+    @Mock ItemRepository items;
+    @Mock OrderItemRepository orderItems;
+    @Mock UserRepository users;
+    @Mock UrgentOrderQueue urgentQueue;
+    @Spy PricingEngine pricing = new PricingEngine(new PricingConfig());
+    @Mock StockReservations stock;
+    @Mock ItemCatalog catalog;
+
+    @InjectMocks
+    OrderServiceImpl service;
+
+    private static Item item(long id, long stock) {
+        Item it = new Item();
+        it.setId(id);
+        it.setName("Item-" + id);
+        it.setQuantity(stock);
+        it.setUnitPrice(BigDecimal.TEN);
+        it.setPackageVolume(2L);
+        return it;
+    }
+
+    private static ItemDto dto(Item it) {
+        return new ItemDto(it.getId(), it.getName(), it.getQuantity(), it.getUnitPrice(), it.getPackageVolume(), null);
+    }
+
+    private static Order draft(Item... existing) {
+        Order o = new Order();
+        o.setOrderNumber(7L);
+        o.setStatus(OrderStatus.CREATED);
+        for (Item it : existing) {
+            OrderItem oi = new OrderItem();
+            oi.setId(new OrderItemId(7L, it.getId()));
+            oi.setItem(it);
+            oi.setRequestedQty(1L);
+            oi.setPrice(BigDecimal.TEN);
+            oi.setVolume(2L);
+            o.addItem(oi);
+            o.adjustTotals(BigDecimal.TEN, 2L);
+        }
+        return o;
+    }
+
+    private static long qty(Order o, long itemId) {
+        return o.getItems().stream().filter(oi -> oi.getItem().getId() == itemId)
+                .findFirst().orElseThrow().getRequestedQty();
+    }
+
+    @Test
+    void applyLineItems_loadsItemsOnce_andAppliesEveryOperation() {
+        Item kept = item(1L, 500L);
+        Item dropped = item(2L, 500L);
+        Order o = draft(kept, dropped);
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orders.findWithItemsByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(catalog.findAll(Set.of(10L, 11L))).thenReturn(Map.of(10L, dto(item(10L, 500L)), 11L, dto(item(11L, 5L))));
+        when(items.getReferenceById(anyLong())).thenAnswer(a -> item(a.getArgument(0), 0L));
+        when(orders.save(any())).thenAnswer(a -> a.getArgument(0));
+
+        Order out = service.applyLineItems(3L, 7L, List.of(
+                new LineItemOperation(Op.ADD, 10L, 100L),
+                new LineItemOperation(Op.ADD, 11L, 3L),
+                new LineItemOperation(Op.ADD, 1L, 4L),
+                new LineItemOperation(Op.REMOVE, 2L, null)));
+
+        assertThat(out.getItems()).extracting(oi -> oi.getItem().getId()).containsExactlyInAnyOrder(1L, 10L, 11L);
+        assertThat(qty(out, 1L)).isEqualTo(5L);
+        OrderItem bulk = out.getItems().stream().filter(oi -> oi.getItem().getId() == 10L).findFirst().orElseThrow();
+        assertThat(bulk.getPrice()).isEqualByComparingTo("900");
+        assertThat(bulk.getVolume()).isEqualTo(200L);
+        // 50 (item 1, 5 x 10) + 900 (bulk) + 30.60 (3 x 10.20 low stock); item 2 removed
+        assertThat(out.getSubtotal()).isEqualByComparingTo("980.60");
+        assertThat(out.getTotalVolume()).isEqualTo(10L + 200L + 6L);
+        verify(catalog, times(1)).findAll(any());
+        verify(items, never()).findById(any());
+        verify(items, never()).findAllById(any());
+        verify(orderItems, never()).findByOrderOrderNumberAndItemId(any(), any());
+        verify(orders, times(1)).save(o);
+    }
+
+    @Test
+    void updateItemQuantity_pricesLowStockFromSnapshotPlusPendingMovements() {
+        Item restocked = item(1L, 5L);
+        ReflectionTestUtils.setField(restocked, "pendingQuantity", 30L); // a receipt not folded yet
+        Order o = draft(restocked);
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orderItems.findByOrderOrderNumberAndItemId(7L, 1L)).thenReturn(Optional.of(o.getItems().get(0)));
+        when(orders.save(any())).thenAnswer(a -> a.getArgument(0));
+
+        service.updateItemQuantity(3L, 7L, 1L, 3L);
+
+        verify(pricing).linePrice(BigDecimal.TEN, 3L, 35L);
+        assertThat(o.getItems().get(0).getPrice()).isEqualByComparingTo("30.00"); // no low-stock surcharge
+    }
+
+    @Test
+    void applyLineItems_removeThenAdd_reusesExistingLine() {
+        Item it = item(1L, 500L);
+        Order o = draft(it);
+        OrderItem line = o.getItems().get(0);
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orders.findWithItemsByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orders.save(any())).thenAnswer(a -> a.getArgument(0));
+
+        Order out = service.applyLineItems(3L, 7L, List.of(
+                new LineItemOperation(Op.REMOVE, 1L, null),
+                new LineItemOperation(Op.ADD, 1L, 6L)));
+
+        assertThat(out.getItems()).containsExactly(line);
+        assertThat(line.getRequestedQty()).isEqualTo(6L);
+        assertThat(out.getSubtotal()).isEqualByComparingTo("60");
+        assertThat(out.getTotalVolume()).isEqualTo(12L);
+        verifyNoInteractions(items, catalog);
+    }
+
+    @Test
+    void applyLineItems_unknownItemOrMissingLine_rejectsWholeBatch() {
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenAnswer(a -> Optional.of(draft()));
+        when(orders.findWithItemsByOrderNumberAndClientId(7L, 3L)).thenAnswer(a -> Optional.of(draft()));
+        when(catalog.findAll(any())).thenReturn(Map.of());
+
+        assertThatThrownBy(() -> service.applyLineItems(3L, 7L, List.of(new LineItemOperation(Op.ADD, 99L, 1L))))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessageContaining("Operation 0");
+        assertThatThrownBy(() -> service.applyLineItems(3L, 7L, List.of(new LineItemOperation(Op.UPDATE, 5L, 1L))))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessageContaining("not present");
+        verify(orders, never()).save(any());
+    }
+
+    @Test
+    void submitOrder_usesRunningSubtotal_withoutAggregateQuery() {
+        Order o = draft(item(1L, 500L));
+        o.adjustTotals(new BigDecimal("9990.00"), 0L); // subtotal 10000.00
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orders.save(any())).thenAnswer(a -> a.getArgument(0));
+
+        Order out = service.submitOrder(3L, 7L);
+
+        assertThat(out.getTotal()).isEqualByComparingTo("9500.00");
+        assertThat(out.getStatus()).isEqualTo(OrderStatus.AWAITING_APPROVAL);
+        verifyNoInteractions(orderItems);
+    }
+
+    @Test
+    void cancelOrder_approved_releasesReservedStock() {
+        Order o = draft(item(1L, 500L));
+        o.setStatus(OrderStatus.APPROVED);
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(o));
+        when(orders.save(any())).thenAnswer(a -> a.getArgument(0));
+
+        assertThat(service.cancelOrder(3L, 7L).getStatus()).isEqualTo(OrderStatus.CANCELED);
+        verify(stock).release(7L);
+
+        Order draft = draft(item(1L, 500L));
+        when(orders.findByOrderNumberAndClientId(7L, 3L)).thenReturn(Optional.of(draft));
+        service.cancelOrder(3L, 7L);
+        verifyNoMoreInteractions(stock);
+    }
+
+    @Test
+    void listMyOrders_pagesIdsThenLoadsPage_andNextCursorResumesAfterLastRow() {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 2, 10, 0);
+        Order newer = new Order();
+        newer.setOrderNumber(12L);
+        newer.setCreatedAt(at.plusHours(1));
+        Order older = new Order();
+        older.setOrderNumber(9L);
+        older.setCreatedAt(at);
+        when(orders.findClientPageIds(eq(3L), isNull(), any(), any(), eq(Limit.of(3))))
+                .thenReturn(List.of(12L, 9L, 4L));
+        when(orders.findAllByOrderNumberIn(List.of(12L, 9L))).thenReturn(List.of(older, newer));
+
+        CursorPage<Order> page = service.listMyOrders(3L, null, null, 2);
+
+        assertThat(page.items()).containsExactly(newer, older);
+        assertThat(page.next()).isNotNull();
+
+        when(orders.findClientPageIds(3L, OrderStatus.FULFILLED, at, 9L, Limit.of(3))).thenReturn(List.of());
+        CursorPage<Order> last = service.listMyOrders(3L, OrderStatus.FULFILLED, page.next(), 2);
+
+        assertThat(last.items()).isEmpty();
+        assertThat(last.next()).isNull();
+        assertThatThrownBy(() -> service.listMyOrders(3L, null, "not a cursor!", 2))
+                .isInstanceOf(BusinessRuleExceptions.class);
+    }
+}
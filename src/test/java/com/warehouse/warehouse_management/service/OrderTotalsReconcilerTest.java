@@ -0,0 +1,53 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.dto.OrderTotalsDrift;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTotalsReconcilerTest {
+
+    @Mock OrderRepository orders;
+    @Mock JobLeaseManager leases;
+    @Mock PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    OrderTotalsReconciler reconciler;
+
+    @Test
+    void reconcile_correctsDriftedOrders() {
+        when(orders.findTotalsDrift(OrderTotalsReconciler.PRICED)).thenReturn(List.of(
+                new OrderTotalsDrift(3L, BigDecimal.ONE, 1L, BigDecimal.TEN, 1L)));
+        when(orders.findTotalsDrift(OrderTotalsReconciler.EDITABLE)).thenReturn(List.of(
+                new OrderTotalsDrift(1L, BigDecimal.ONE, 5L, BigDecimal.TEN, 7L),
+                new OrderTotalsDrift(2L, BigDecimal.ZERO, 0L, BigDecimal.ONE, 1L)));
+        when(orders.correctTotals(eq(1L), any(), any(), any(), any())).thenReturn(1);
+        when(orders.correctTotals(eq(2L), any(), any(), any(), any())).thenReturn(0); // edited meanwhile
+
+        int fixed = reconciler.reconcile();
+
+        assertThat(fixed).isEqualTo(1);
+        verify(orders).correctTotals(1L, BigDecimal.ONE, 5L, BigDecimal.TEN, 7L);
+        verify(orders, never()).correctTotals(eq(3L), any(), any(), any(), any());
+    }
+
+    @Test
+    void reconcileNightly_runsUnderLease() {
+        reconciler.reconcileNightly();
+
+        verify(leases).runExclusively(eq(OrderTotalsReconciler.JOB), any());
+        verifyNoInteractions(orders);
+    }
+}
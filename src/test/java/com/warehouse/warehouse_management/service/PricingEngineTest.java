@@ -0,0 +1,64 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.PricingConfig;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PricingEngineTest {
+
+    private final PricingEngine engine = new PricingEngine(new PricingConfig());
+
+    // the BigDecimal/double formula the engine replaced, rounded the way the DECIMAL(12,2) column does
+    private static BigDecimal legacyLine(BigDecimal unit, long qty, long stock) {
+        BigDecimal price;
+        if (qty >= 100) price = unit.multiply(BigDecimal.valueOf(0.9)).multiply(BigDecimal.valueOf(qty));
+        else if (stock < 20) price = unit.multiply(BigDecimal.valueOf(1.02)).multiply(BigDecimal.valueOf(qty));
+        else price = unit.multiply(BigDecimal.valueOf(qty));
+        return price.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Test
+    void linePrice_matchesLegacyFormula() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal unit = BigDecimal.valueOf(1 + rnd.nextInt(500_000), 2);
+            long qty = 1 + rnd.nextInt(300);
+            long stock = rnd.nextInt(60);
+            assertThat(engine.linePrice(unit, qty, stock))
+                    .as("unit=%s qty=%d stock=%d", unit, qty, stock)
+                    .isEqualByComparingTo(legacyLine(unit, qty, stock));
+        }
+    }
+
+    @Test
+    void rules_applyInOrder() {
+        assertThat(engine.lineCents(1000, 100, 5)).isEqualTo(90_000);   // bulk wins over low stock
+        assertThat(engine.lineCents(1000, 10, 5)).isEqualTo(10_200);    // low stock
+        assertThat(engine.lineCents(1000, 10, 50)).isEqualTo(10_000);   // no rule
+        assertThat(engine.orderTotalCents(999_999)).isEqualTo(999_999);
+        assertThat(engine.orderTotalCents(1_000_000)).isEqualTo(950_000);
+        assertThat(engine.weekendCents(333)).isEqualTo(350);            // 349.65 rounds up
+    }
+
+    @Test
+    void priceLines_returnsSubtotal() {
+        long[] out = new long[3];
+        long subtotal = engine.priceLines(new long[]{1000, 250, 99}, new long[]{100, 3, 7}, new long[]{500, 5, 500}, out);
+
+        assertThat(out).containsExactly(90_000, 765, 693);
+        assertThat(subtotal).isEqualTo(91_458);
+    }
+
+    @Test
+    void boundaryConversions() {
+        assertThat(PricingEngine.toCents(new BigDecimal("12.345"))).isEqualTo(1235);
+        assertThat(PricingEngine.fromCents(1235)).isEqualTo(new BigDecimal("12.35"));
+        assertThat(engine.orderTotal(new BigDecimal("10000.00"))).isEqualTo(new BigDecimal("9500.00"));
+        assertThat(engine.withWeekendSurcharge(new BigDecimal("100.00"))).isEqualTo(new BigDecimal("105.00"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.entity.RefreshToken;
+import com.warehouse.warehouse_management.entity.Role;
+import com.warehouse.warehouse_management.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokensTest {
+
+    @Mock RefreshTokenRepository tokens;
+    @Mock UserCache users;
+    @Mock TokenRevocations revocations;
+    @Mock JobLeaseManager leases;
+    @Mock PlatformTransactionManager transactionManager;
+
+    JwtService jwtService;
+    RefreshTokens refreshTokens;
+    AuthenticatedUser user;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setSecret("0123456789abcdef0123456789abcdef-test-secret");
+        config.setAccessTokenExpiration(900);
+        config.setRefreshTokenExpiration(3600);
+        jwtService = new JwtService(config, new JwtVerifier(config));
+        refreshTokens = new RefreshTokens(tokens, users, revocations, jwtService, config, leases, transactionManager);
+
+        user = new AuthenticatedUser(5L, "ann@example.com", "Ann", "Brown", Role.CLIENT);
+    }
+
+    private Jwt parsed(Jwt token) {
+        return jwtService.parseToken(token.toString());
+    }
+
+    @Test
+    void issue_startsAFamilyAndRecordsBothTokenIds() {
+        IssuedTokens issued = refreshTokens.issue(user);
+
+        ArgumentCaptor<RefreshToken> row = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(tokens).save(row.capture());
+        Jwt refresh = parsed(issued.refreshToken());
+        assertThat(refresh.isRefreshToken()).isTrue();
+        assertThat(parsed(issued.accessToken()).isAccessToken()).isTrue();
+        assertThat(row.getValue().getJti()).isEqualTo(refresh.getId());
+        assertThat(row.getValue().getFamilyId()).isEqualTo(refresh.getFamilyId()).isNotNull();
+        assertThat(row.getValue().getAccessJti()).isEqualTo(issued.accessToken().getId());
+    }
+
+    @Test
+    void rotate_spendsTheTokenAndIssuesASuccessorInTheSameFamily() {
+        Jwt refresh = parsed(refreshTokens.issue(user).refreshToken());
+        when(tokens.rotate(eq(refresh.getId()), any())).thenReturn(1);
+        when(users.findById(5L)).thenReturn(Optional.of(user));
+
+        IssuedTokens next = refreshTokens.rotate(refresh);
+
+        assertThat(next).isNotNull();
+        assertThat(next.refreshToken().getId()).isNotEqualTo(refresh.getId());
+        assertThat(parsed(next.refreshToken()).getFamilyId()).isEqualTo(refresh.getFamilyId());
+        assertThat(refreshTokens.rotate(parsed(next.accessToken()))).isNull();
+    }
+
+    @Test
+    void rotate_replayOfASpentToken_revokesTheFamily() {
+        Jwt refresh = parsed(refreshTokens.issue(user).refreshToken());
+        when(tokens.rotate(eq(refresh.getId()), any())).thenReturn(0);
+        RefreshToken spent = row(refresh.getId(), refresh.getFamilyId(), "a1", LocalDateTime.now());
+        RefreshToken live = row("r2", refresh.getFamilyId(), "a2", null);
+        when(tokens.findById(refresh.getId())).thenReturn(Optional.of(spent));
+        when(tokens.findAllByFamilyIdInAndRevokedFalse(List.of(refresh.getFamilyId()))).thenReturn(List.of(spent, live));
+
+        assertThat(refreshTokens.rotate(refresh)).isNull();
+
+        verify(tokens).revokeFamilies(List.of(refresh.getFamilyId()));
+        verify(revocations).revoke(Map.of("a1", spent.getIssuedAt().plusSeconds(900),
+                "r2", live.getExpiresAt(), "a2", live.getIssuedAt().plusSeconds(900)));
+        verify(users, never()).findById(any());
+    }
+
+    private static RefreshToken row(String jti, String family, String accessJti, LocalDateTime rotatedAt) {
+        RefreshToken t = new RefreshToken();
+        t.setJti(jti);
+        t.setFamilyId(family);
+        t.setUserId(5L);
+        t.setAccessJti(accessJti);
+        t.setIssuedAt(LocalDateTime.now().minusMinutes(1));
+        t.setExpiresAt(LocalDateTime.now().plusHours(1));
+        t.setRotatedAt(rotatedAt);
+        return t;
+    }
+}
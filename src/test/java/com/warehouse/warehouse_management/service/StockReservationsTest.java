@@ -0,0 +1,153 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.entity.*;
+import com.warehouse.warehouse_management.exceptions.BusinessRuleExceptions;
+import com.warehouse.warehouse_management.repository.ItemRepository;
+import com.warehouse.warehouse_management.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationsTest {
+
+    @Mock ItemRepository items;
+    @Mock StockReservationRepository reservations;
+    @Mock AvailableToPromise atp;
+    @Mock ItemCatalog catalog;
+    @Mock InventoryLedger ledger;
+
+    @InjectMocks
+    StockReservations stock;
+
+    // lines deliberately out of item id order: Nut(9) x4, Bolt(3) x2, Gear(6) x1
+    private static Order order() {
+        Order o = new Order();
+        o.setOrderNumber(5L);
+        line(o, 9L, "Nut", 4L);
+        line(o, 3L, "Bolt", 2L);
+        line(o, 6L, "Gear", 1L);
+        return o;
+    }
+
+    private static void line(Order o, long itemId, String name, long qty) {
+        Item it = new Item();
+        it.setId(itemId);
+        it.setName(name);
+        OrderItem oi = new OrderItem();
+        oi.setId(new OrderItemId(o.getOrderNumber(), itemId));
+        oi.setItem(it);
+        oi.setRequestedQty(qty);
+        o.addItem(oi);
+    }
+
+    private static StockReservation held(long itemId, long qty) {
+        StockReservation r = new StockReservation();
+        r.setId(new StockReservationId(5L, itemId));
+        r.setQuantity(qty);
+        return r;
+    }
+
+    @Test
+    void reserve_inItemIdOrder_recordsLinesAndLowersAvailability() {
+        when(items.reserveAll(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 4L})).thenReturn(new int[]{1, 1, 1});
+
+        stock.reserve(order());
+
+        verify(reservations).reserveLines(5L);
+        verify(ledger).recordApplied(MovementKind.RESERVATION, 5L, new long[]{3L, 6L, 9L}, new long[3], new long[]{2L, 1L, 4L});
+        verify(atp).adjust(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 4L}, -1);
+        verify(items, never()).releaseAll(any(), any());
+    }
+
+    @Test
+    void reserve_foldsPendingMovementsBeforeLockingItems() {
+        when(items.reserveAll(any(), any())).thenReturn(new int[]{1, 1, 1});
+
+        stock.reserve(order());
+
+        InOrder inOrder = inOrder(ledger, items);
+        inOrder.verify(ledger).fold(List.of(3L, 6L, 9L));
+        inOrder.verify(items).reserveAll(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 4L});
+        verify(items, times(1)).reserveAll(any(), any());
+    }
+
+    @Test
+    void reserve_someItemsShort_undoesTheRestAndListsEveryShortItem() {
+        when(items.reserveAll(any(), any())).thenReturn(new int[]{0, 1, 0});
+
+        assertThatThrownBy(() -> stock.reserve(order()))
+                .isInstanceOf(BusinessRuleExceptions.class)
+                .hasMessage("Insufficient stock for items: 3 (Bolt), 9 (Nut)");
+        verify(items).releaseAll(new long[]{6L}, new long[]{1L});
+        verify(ledger).fold(List.of(3L, 6L, 9L));
+        verify(reservations, never()).reserveLines(anyLong());
+        verifyNoInteractions(atp);
+    }
+
+    @Test
+    void consume_fullyReserved_recordsPendingShipmentWithoutTouchingItems() {
+        when(reservations.countByIdOrderId(5L)).thenReturn(3L);
+
+        String shortage = stock.consume(order());
+
+        assertThat(shortage).isNull();
+        verify(reservations).deleteAllForOrder(5L);
+        verify(ledger).record(MovementKind.SHIPMENT, 5L, new long[]{3L, 6L, 9L},
+                new long[]{-2L, -1L, -4L}, new long[]{-2L, -1L, -4L});
+        verify(items, never()).consumeAll(any(), any(), any());
+    }
+
+    @Test
+    void consume_shortAfterPreCheck_putsAppliedLinesBackAndKeepsReservation() {
+        when(reservations.findAllByIdOrderId(5L)).thenReturn(List.of(held(3L, 2L)));
+        when(items.consumeAll(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 4L}, new long[]{2L, 0L, 0L}))
+                .thenReturn(new int[]{1, 0, 1});
+
+        String shortage = stock.consume(order());
+
+        assertThat(shortage).isEqualTo("Insufficient stock for items: 6 (Gear)");
+        verify(items).unconsumeAll(new long[]{3L, 9L}, new long[]{2L, 4L}, new long[]{2L, 0L});
+        verify(reservations, never()).deleteAllForOrder(anyLong());
+    }
+
+    @Test
+    void consume_partlyReserved_takesOnlyItsOwnReservationsAndFreeStockForTheRest() {
+        when(reservations.findAllByIdOrderId(5L)).thenReturn(List.of(held(9L, 4L)));
+        when(items.consumeAll(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 4L}, new long[]{0L, 0L, 4L}))
+                .thenReturn(new int[]{1, 1, 1});
+
+        String shortage = stock.consume(order());
+
+        assertThat(shortage).isNull();
+        InOrder inOrder = inOrder(ledger, items);
+        inOrder.verify(ledger).fold(List.of(3L, 6L, 9L));
+        inOrder.verify(items).consumeAll(any(), any(), any());
+        verify(ledger).recordApplied(MovementKind.SHIPMENT, 5L, new long[]{3L, 6L, 9L},
+                new long[]{-2L, -1L, -4L}, new long[]{0L, 0L, -4L});
+        verify(atp).adjust(new long[]{3L, 6L, 9L}, new long[]{2L, 1L, 0L}, -1);
+        verify(reservations).deleteAllForOrder(5L);
+    }
+
+    @Test
+    void release_givesBackWhatWasHeld() {
+        when(reservations.findAllByIdOrderId(5L)).thenReturn(List.of(held(9L, 4L), held(3L, 2L)));
+
+        stock.release(5L);
+
+        verify(ledger).record(MovementKind.RELEASE, 5L, new long[]{3L, 9L}, new long[2], new long[]{-2L, -4L});
+        verify(items, never()).releaseAll(any(), any());
+        verify(reservations).deleteAllForOrder(5L);
+        verify(atp).adjust(new long[]{3L, 9L}, new long[]{2L, 4L}, 1);
+    }
+}
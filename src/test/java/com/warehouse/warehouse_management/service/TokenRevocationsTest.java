@@ -0,0 +1,76 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.JwtConfig;
+import com.warehouse.warehouse_management.entity.RevokedToken;
+import com.warehouse.warehouse_management.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationsTest {
+
+    @Mock RevokedTokenRepository revoked;
+
+    TokenRevocations revocations;
+    LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setRevocationFilterBits(1 << 12);
+        revocations = new TokenRevocations(revoked, config);
+        when(revoked.findAllByExpiresAtAfter(any())).thenReturn(List.of(new RevokedToken("loaded", later)));
+        revocations.reload();
+    }
+
+    @Test
+    void isRevoked_answersFromTheLoadedRowsAndNewRevocations() {
+        revocations.revoke(Map.of("fresh", later));
+
+        verify(revoked).saveAll(argThat((List<RevokedToken> rows) ->
+                rows.size() == 1 && rows.get(0).getJti().equals("fresh") && rows.get(0).getExpiresAt().equals(later)));
+        assertThat(revocations.isRevoked("loaded")).isTrue();
+        assertThat(revocations.isRevoked("fresh")).isTrue();
+        assertThat(revocations.isRevoked("other")).isFalse();
+        assertThat(revocations.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void reload_keepsRevocationsTheQueryMissedAndDropsExpiredOnes() {
+        revocations.revoke(Map.of("applied", later, "gone", LocalDateTime.now().minusSeconds(1)));
+
+        revocations.reload();
+
+        assertThat(revocations.isRevoked("applied")).isTrue();
+        assertThat(revocations.isRevoked("gone")).isFalse();
+        assertThat(revocations.isRevoked("loaded")).isTrue();
+    }
+
+    @Test
+    void filterHitsWithoutAnExactMatch_areNotRevoked() {
+        // a filter this small saturates, so nearly every lookup goes through to the exact set
+        JwtConfig tiny = new JwtConfig();
+        tiny.setRevocationFilterBits(64);
+        TokenRevocations small = new TokenRevocations(revoked, tiny);
+        small.reload();
+        Map<String, LocalDateTime> many = new HashMap<>();
+        for (int i = 0; i < 200; i++) many.put("jti-" + i, later);
+        small.revoke(many);
+
+        for (int i = 0; i < 200; i++) assertThat(small.isRevoked("jti-" + i)).isTrue();
+        for (int i = 0; i < 200; i++) assertThat(small.isRevoked(UUID.randomUUID().toString())).isFalse();
+    }
+}
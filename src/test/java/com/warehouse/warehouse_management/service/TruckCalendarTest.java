@@ -0,0 +1,102 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.DeliveryConfig;
+import com.warehouse.warehouse_management.dto.TruckBooking;
+import com.warehouse.warehouse_management.entity.*;
+import com.warehouse.warehouse_management.repository.DeliveryRepository;
+import com.warehouse.warehouse_management.repository.TruckRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TruckCalendarTest {
+
+    @Mock TruckRepository trucks;
+    @Mock DeliveryRepository deliveries;
+    @Spy DeliveryConfig config = new DeliveryConfig();
+
+    @InjectMocks
+    TruckCalendar calendar;
+
+    private final Truck a = truck("A", 100L);
+    private final Truck b = truck("B", 50L);
+    private LocalDate weekday;
+
+    private static Truck truck(String vin, long cap) {
+        Truck t = new Truck();
+        t.setVin(vin);
+        t.setContainerVolume(cap);
+        t.setActive(true);
+        return t;
+    }
+
+
+    @BeforeEach
+    void setUp() {
+        LocalDate d = LocalDate.now().plusDays(1);
+        while (d.getDayOfWeek() == DayOfWeek.SATURDAY || d.getDayOfWeek() == DayOfWeek.SUNDAY) d = d.plusDays(1);
+        weekday = d;
+    }
+
+    @Test
+    void reload_usesSingleRangeQuery_andComputesFreeCapacity() {
+        when(trucks.findAll()).thenReturn(List.of(a, b));
+        when(deliveries.findBookingsBetween(any(), any()))
+                .thenReturn(List.of(new TruckBooking(weekday, "A", Priority.NORMAL)));
+
+        calendar.reload();
+
+        assertThat(calendar.activeCapacity()).isEqualTo(150L);
+        assertThat(calendar.freeCapacity(weekday, false)).isEqualTo(50L);
+        assertThat(calendar.freeCapacity(weekday, true)).isEqualTo(150L);
+        verify(deliveries, times(1)).findBookingsBetween(any(), any());
+    }
+
+    @Test
+    void availableDays_skipsWeekendsAndBookedDays() {
+        when(trucks.findAll()).thenReturn(List.of(a, b));
+        when(deliveries.findBookingsBetween(any(), any()))
+                .thenReturn(List.of(new TruckBooking(weekday, "A", Priority.URGENT)));
+        calendar.reload();
+
+        var normal = calendar.availableDays(weekday, 7, 120L, false);
+        var urgent = calendar.availableDays(weekday, 7, 120L, true);
+
+        assertThat(normal).doesNotContain(weekday).hasSize(4);
+        assertThat(urgent).doesNotContain(weekday);
+        assertThat(normal).allMatch(d -> d.getDayOfWeek() != DayOfWeek.SATURDAY && d.getDayOfWeek() != DayOfWeek.SUNDAY);
+    }
+
+    @Test
+    void bookAndDeactivate_updateTotalsWithoutQueries() {
+        when(trucks.findAll()).thenReturn(List.of(a, b));
+        when(deliveries.findBookingsBetween(any(), any())).thenReturn(List.of());
+        calendar.reload();
+
+        calendar.book(weekday, List.of(b), Priority.NORMAL);
+        assertThat(calendar.freeCapacity(weekday, false)).isEqualTo(100L);
+
+        calendar.setActive(List.of("B"), false);
+        assertThat(calendar.activeCapacity()).isEqualTo(100L);
+        assertThat(calendar.freeCapacity(weekday, false)).isEqualTo(100L);
+
+        calendar.move(weekday, weekday.plusDays(1), List.of(b), Priority.NORMAL);
+        calendar.setActive(List.of("B"), true);
+        assertThat(calendar.freeCapacity(weekday, false)).isEqualTo(150L);
+        assertThat(calendar.freeCapacity(weekday.plusDays(1), false)).isEqualTo(100L);
+        verify(deliveries, times(1)).findBookingsBetween(any(), any());
+    }
+}
@@ -0,0 +1,109 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.TruckSelectionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TruckSelectorImplTest {
+
+    private final TruckSelectorImpl selector = new TruckSelectorImpl(new TruckSelectionConfig());
+
+    private static TruckSelectorImpl withNodeBudget(long nodes) {
+        var config = new TruckSelectionConfig();
+        config.setNodeBudget(nodes);
+        return new TruckSelectorImpl(config);
+    }
+
+    private static long sum(long[] caps, TruckSelection sel) {
+        return Arrays.stream(sel.indices()).mapToLong(i -> caps[i]).sum();
+    }
+
+    // exhaustive reference for small fleets: least overshoot, then fewest trucks
+    private static long[] bruteForce(long[] caps, long target) {
+        long bestSum = Long.MAX_VALUE, bestCount = Long.MAX_VALUE;
+        for (int mask = 1; mask < (1 << caps.length); mask++) {
+            long s = 0;
+            for (int i = 0; i < caps.length; i++) if ((mask & (1 << i)) != 0) s += caps[i];
+            long c = Integer.bitCount(mask);
+            if (s >= target && (s < bestSum || (s == bestSum && c < bestCount))) {
+                bestSum = s;
+                bestCount = c;
+            }
+        }
+        return bestSum == Long.MAX_VALUE ? null : new long[]{bestSum, bestCount};
+    }
+
+    @Test
+    void select_notEnoughCapacity_returnsNone() {
+        assertThat(selector.select(new long[]{10, 20}, 31).isEmpty()).isTrue();
+    }
+
+    @Test
+    void select_ignoresNonPositiveCapacities() {
+        long[] caps = {0, -5, 30, 10};
+        var sel = selector.select(caps, 25);
+        assertThat(sel.indices()).containsExactly(2);
+        assertThat(sel.capacity()).isEqualTo(30);
+    }
+
+    @Test
+    void select_prefersExactFitOverSingleLargeTruck() {
+        long[] caps = {100, 60, 40, 35};
+        var sel = selector.select(caps, 75);
+        assertThat(sum(caps, sel)).isEqualTo(75);
+        assertThat(sel.indices()).containsExactlyInAnyOrder(2, 3);
+    }
+
+    @Test
+    void select_matchesBruteForceOnSmallRandomFleets() {
+        Random rnd = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            int n = 1 + rnd.nextInt(12);
+            long[] caps = new long[n];
+            for (int i = 0; i < n; i++) caps[i] = 1 + rnd.nextInt(round % 2 == 0 ? 50 : 5_000_000);
+            long target = 1 + rnd.nextInt((int) Arrays.stream(caps).sum());
+
+            long[] expected = bruteForce(caps, target);
+            var sel = selector.select(caps, target);
+
+            assertThat(sum(caps, sel)).isEqualTo(expected[0]);
+            assertThat((long) sel.indices().length).isEqualTo(expected[1]);
+        }
+    }
+
+    @Test
+    void select_largeFleet_findsOptimalCombination() {
+        long[] caps = new long[200];
+        for (int i = 0; i < caps.length; i++) caps[i] = (i % 4 == 0) ? 33_000 : (i % 4 == 1) ? 45_000 : (i % 4 == 2) ? 62_000 : 80_000;
+
+        var sel = selector.select(caps, 173_000);
+
+        // no three trucks add up to 173k, but 33k + 33k + 45k + 62k does
+        assertThat(sum(caps, sel)).isEqualTo(173_000);
+        assertThat(sel.indices()).hasSize(4);
+    }
+
+    @Test
+    void select_budgetExhausted_returnsFeasibleNonOptimal() {
+        Random rnd = new Random(7);
+        long[] caps = new long[200];
+        for (int i = 0; i < caps.length; i++) caps[i] = 10_000_000L + rnd.nextInt(90_000_000);
+
+        var sel = withNodeBudget(50).select(caps, 250_000_123L);
+
+        assertThat(sel.optimal()).isFalse();
+        assertThat(sel.isEmpty()).isFalse();
+        assertThat(sum(caps, sel)).isGreaterThanOrEqualTo(250_000_123L);
+    }
+
+    @Test
+    void select_dpPath_isReportedOptimal() {
+        var sel = withNodeBudget(1).select(new long[]{100, 60, 40, 35}, 75);
+        assertThat(sel.optimal()).isTrue();
+        assertThat(sel.capacity()).isEqualTo(75);
+    }
+}
@@ -0,0 +1,71 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.entity.Order;
+import com.warehouse.warehouse_management.entity.OrderStatus;
+import com.warehouse.warehouse_management.entity.Priority;
+import com.warehouse.warehouse_management.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrgentOrderQueueTest {
+
+    @Mock OrderRepository orders;
+
+    @InjectMocks
+    UrgentOrderQueue queue;
+
+    private static Order order(long id, Priority priority) {
+        Order o = new Order();
+        o.setOrderNumber(id);
+        o.setPriority(priority);
+        return o;
+    }
+
+    @Test
+    void rebuild_loadsFromDatabase_andCountsOthers() {
+        when(orders.findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED)).thenReturn(List.of(5L, 3L));
+        queue.rebuild();
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.countOtherThan(3L)).isEqualTo(1);
+        assertThat(queue.countOtherThan(99L)).isEqualTo(2);
+        assertThat(queue.firstOtherThan(99L, 1)).containsExactly(3L);
+    }
+
+    @Test
+    void approvedAndRemoved_maintainQueueIncrementally() {
+        when(orders.findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED)).thenReturn(List.of());
+        queue.rebuild();
+
+        queue.approved(order(7L, Priority.URGENT));
+        queue.approved(order(8L, Priority.NORMAL));
+        queue.approved(order(7L, Priority.URGENT));
+        assertThat(queue.size()).isEqualTo(1);
+
+        queue.removed(7L);
+        queue.removed(7L);
+        assertThat(queue.size()).isZero();
+        verify(orders, times(1)).findIdsByPriorityAndStatus(any(), any());
+    }
+
+    @Test
+    void verify_rebuildsWhenDatabaseDisagrees() {
+        when(orders.findIdsByPriorityAndStatus(Priority.URGENT, OrderStatus.APPROVED))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(1L, 2L));
+        queue.rebuild();
+
+        queue.verify();
+
+        assertThat(queue.snapshot()).containsExactly(1L, 2L);
+    }
+}
@@ -0,0 +1,72 @@
+package com.warehouse.warehouse_management.service;
+
+import com.warehouse.warehouse_management.config.UserCacheConfig;
+import com.warehouse.warehouse_management.entity.Role;
+import com.warehouse.warehouse_management.entity.User;
+import com.warehouse.warehouse_management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock UserRepository users;
+
+    UserCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserCache(users, new UserCacheConfig());
+    }
+
+    private static User user(long id, String name) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail("ann@example.com");
+        u.setPassword("hash");
+        u.setName(name);
+        u.setRole(Role.CLIENT);
+        return u;
+    }
+
+    @Test
+    void findById_loadsOnceAndKeepsNoCredentials() {
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L, "Ann")));
+
+        cache.findById(1L);
+        var hit = cache.findById(1L);
+
+        assertThat(hit).get().extracting(AuthenticatedUser::name).isEqualTo("Ann");
+        assertThat(hit.get().toString()).doesNotContain("hash");
+        verify(users, times(1)).findById(1L);
+    }
+
+    @Test
+    void invalidate_dropsTheUser() {
+        when(users.findById(1L)).thenReturn(Optional.of(user(1L, "Ann")), Optional.of(user(1L, "Anna")));
+        cache.findById(1L);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.findById(1L)).get().extracting(AuthenticatedUser::name).isEqualTo("Anna");
+    }
+
+    @Test
+    void loadStartedBeforeAnInvalidation_isNotStored() {
+        when(users.findById(1L)).thenAnswer(inv -> {
+            cache.invalidate(1L); // committed while the load was reading the old row
+            return Optional.of(user(1L, "Old"));
+        }).thenReturn(Optional.of(user(1L, "New")));
+
+        assertThat(cache.findById(1L)).get().extracting(AuthenticatedUser::name).isEqualTo("Old");
+        assertThat(cache.findById(1L)).get().extracting(AuthenticatedUser::name).isEqualTo("New");
+    }
+}